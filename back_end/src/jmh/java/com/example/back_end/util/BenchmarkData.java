@@ -0,0 +1,68 @@
+package com.example.back_end.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * 基准测试使用的排课输入
+ * 示例数据从 示例数据/icss_service_db.sql 读取（可用 -Dbenchmark.data 指定其他导出文件）。
+ * scale > 1 时由 InstanceGenerator 按示例数据的分布生成 scale 倍任务数的输入（固定种子，结果可重复），
+ * 教室的紧张程度可用 -Dbenchmark.tightness 调整，默认与示例数据相同。
+ */
+public final class BenchmarkData {
+
+    public static final String DATA_PROPERTY = "benchmark.data";
+    public static final String TIGHTNESS_PROPERTY = "benchmark.tightness";
+    static final String DEFAULT_DATA = "../示例数据/icss_service_db.sql";
+    private static final long SEED = 42;
+
+    private static final Map<Integer, ProblemSnapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    private BenchmarkData() {
+    }
+
+    public static ProblemSnapshot snapshot(int scale) {
+        return SNAPSHOTS.computeIfAbsent(scale, BenchmarkData::load);
+    }
+
+    // 随机的任务顺序，同一种子得到相同的顺序
+    public static int[] randomGenes(int taskCount, Random random) {
+        int[] genes = new int[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            genes[i] = i;
+        }
+        for (int i = taskCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int gene = genes[i];
+            genes[i] = genes[j];
+            genes[j] = gene;
+        }
+        return genes;
+    }
+
+    private static ProblemSnapshot load(int scale) {
+        if (scale < 1) {
+            throw new IllegalArgumentException("Scale must be positive: " + scale);
+        }
+        SqlDumpReader reader;
+        try {
+            reader = new SqlDumpReader(Path.of(System.getProperty(DATA_PROPERTY, DEFAULT_DATA)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read sample data, set -D" + DATA_PROPERTY, e);
+        }
+        if (scale == 1) {
+            List<Classroom> classrooms = reader.read("classrooms", com.example.back_end.entity.Classroom.class)
+                    .stream().map(Classroom::new).toList();
+            List<Task> tasks = reader.read("tasks", com.example.back_end.entity.Task.class)
+                    .stream().map(Task::new).toList();
+            return new ProblemSnapshot(0, classrooms, tasks);
+        }
+        double tightness = Double.parseDouble(System.getProperty(TIGHTNESS_PROPERTY, "1.0"));
+        return new InstanceGenerator(reader).generate(scale, tightness, SEED).toSnapshot();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.back_end.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * 教室占用检测：比较原 boolean[800] + List<Integer> 周次的实现与周掩码实现
+ * 每次操作对全部教室执行一次 tryOccupySlots 式的搜索（每天找第一个可用的两节连排时段），
+ * @Setup 中先确认两种实现对所有查询的结果相同。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClassroomOccupancyBenchmark {
+
+    private static final int SLOTS_PER_DAY = 8;
+    private static final int DAYS_PER_WEEK = 5;
+    private static final int WEEKS_PER_SEMESTER = 20;
+    private static final int ROOMS = 300;
+    private static final int QUERIES = 64;
+
+    // 原实现：每个 周次*时段 一个布尔值，按周次列表逐个检查
+    static class LegacyOccupancy {
+        private final boolean[] timeSlots = new boolean[SLOTS_PER_DAY * DAYS_PER_WEEK * WEEKS_PER_SEMESTER];
+
+        boolean isRangeAvailable(List<Integer> weeks, int startSlot, int endSlot) {
+            for (int week : weeks) {
+                for (int i = startSlot; i <= endSlot; i++) {
+                    if (timeSlots[week * DAYS_PER_WEEK * SLOTS_PER_DAY + i]) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        void occupyRange(List<Integer> weeks, int startSlot, int endSlot) {
+            for (int week : weeks) {
+                for (int i = startSlot; i <= endSlot; i++) {
+                    timeSlots[week * DAYS_PER_WEEK * SLOTS_PER_DAY + i] = true;
+                }
+            }
+        }
+    }
+
+    private LegacyOccupancy[] legacyRooms;
+    private Classroom[] maskRooms;
+    private List<List<Integer>> queries;
+    private int[] queryMasks;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        legacyRooms = new LegacyOccupancy[ROOMS];
+        maskRooms = new Classroom[ROOMS];
+        for (int r = 0; r < ROOMS; r++) {
+            legacyRooms[r] = new LegacyOccupancy();
+            maskRooms[r] = new Classroom(new com.example.back_end.entity.Classroom());
+            // 随机占用约一半的周时段，周次为 1-18 或 1-9 / 10-18
+            for (int n = 0; n < 10; n++) {
+                List<Integer> weeks = randomWeeks(random);
+                int start = random.nextInt(SLOTS_PER_DAY * DAYS_PER_WEEK - 1);
+                if (maskRooms[r].isRangeAvailable(weeks, start, start + 1)) {
+                    legacyRooms[r].occupyRange(weeks, start, start + 1);
+                    maskRooms[r].occupyRange(weeks, start, start + 1);
+                }
+            }
+        }
+        queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(randomWeeks(random));
+        }
+        queryMasks = queries.stream().mapToInt(Classroom::toWeekMask).toArray();
+        for (int q = 0; q < QUERIES; q++) {
+            for (int r = 0; r < ROOMS; r++) {
+                if (scan(legacyRooms[r], queries.get(q)) != scan(maskRooms[r], queryMasks[q])) {
+                    throw new IllegalStateException("Implementations disagree on room " + r + ", query " + q);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int legacy() {
+        List<Integer> weeks = queries.get(next++ & (QUERIES - 1));
+        int found = 0;
+        for (LegacyOccupancy room : legacyRooms) {
+            found += scan(room, weeks);
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int weekMask() {
+        int weekMask = queryMasks[next++ & (QUERIES - 1)];
+        int found = 0;
+        for (Classroom room : maskRooms) {
+            found += scan(room, weekMask);
+        }
+        return found;
+    }
+
+    // 模拟 tryOccupySlots 的搜索过程：每天找第一个可用的两节连排时段
+    private static int scan(LegacyOccupancy room, List<Integer> weeks) {
+        int found = 0;
+        for (int day = 0; day < DAYS_PER_WEEK; day++) {
+            for (int start = day * SLOTS_PER_DAY; start < day * SLOTS_PER_DAY + SLOTS_PER_DAY - 1; start++) {
+                if (room.isRangeAvailable(weeks, start, start + 1)) {
+                    found++;
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static int scan(Classroom room, int weekMask) {
+        int found = 0;
+        for (int day = 0; day < DAYS_PER_WEEK; day++) {
+            for (int start = day * SLOTS_PER_DAY; start < day * SLOTS_PER_DAY + SLOTS_PER_DAY - 1; start++) {
+                if (room.isRangeAvailable(weekMask, start, start + 1)) {
+                    found++;
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static List<Integer> randomWeeks(Random random) {
+        int from = random.nextBoolean() ? 0 : random.nextInt(2) * 9;
+        int to = from == 0 && random.nextBoolean() ? 17 : from + 8;
+        List<Integer> weeks = new ArrayList<>();
+        for (int week = from; week <= to; week++) {
+            weeks.add(week);
+        }
+        return weeks;
+    }
+}
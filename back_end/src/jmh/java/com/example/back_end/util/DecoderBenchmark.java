@@ -0,0 +1,94 @@
+package com.example.back_end.util;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * 贪心解码的吞吐量：从头解码随机任务顺序，以及子代从父代检查点继续解码
+ * 解码器只读共享，用 -t 指定线程数即可观察并行解码的扩展性。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecoderBenchmark {
+
+    private static final int ORDERS = 64;
+
+    @Param({ "1", "4", "10" })
+    private int scale;
+
+    @Param({ "FIRST_FIT", "BEST_FIT" })
+    private RoomSelection roomSelection;
+
+    private GreedyDecoder decoder;
+    private int[][] orders;
+    private TaskList[] parents;
+    private int[][] children; // children[i] 为 parents[i] 在后半段移动一个任务得到的顺序
+    private int[] commonPrefixes;
+
+    @Setup
+    public void setUp() {
+        ProblemSnapshot snapshot = BenchmarkData.snapshot(scale);
+        List<Task> tasks = snapshot.getTasks();
+        decoder = new GreedyDecoder(snapshot.getClassrooms(), tasks, 64, PreferenceMatrix.EMPTY,
+                FitnessWeights.DEFAULT, roomSelection);
+        Random random = new Random(42);
+        orders = new int[ORDERS][];
+        parents = new TaskList[ORDERS];
+        children = new int[ORDERS][];
+        commonPrefixes = new int[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            orders[i] = BenchmarkData.randomGenes(tasks.size(), random);
+            parents[i] = new TaskList(orders[i].clone());
+            decoder.decode(parents[i]);
+            // 与一次变异相同：把后半段的一个任务移动到其后的某个位置
+            int from = tasks.size() / 2 + random.nextInt(tasks.size() / 2 - 1);
+            int to = from + 1 + random.nextInt(tasks.size() - from - 1);
+            TaskList child = new TaskList(orders[i].clone());
+            GeneticAlgorithmScheduler.moveTask(child, from, to);
+            children[i] = child.getGenes();
+            commonPrefixes[i] = from;
+        }
+    }
+
+    @Benchmark
+    public TaskList decodeFull(Cursor cursor) {
+        TaskList taskList = new TaskList(orders[cursor.next()]);
+        decoder.decode(taskList);
+        return taskList;
+    }
+
+    @Benchmark
+    public TaskList decodeFromParent(Cursor cursor) {
+        int i = cursor.next();
+        TaskList child = new TaskList(children[i]);
+        decoder.decode(child, parents[i], commonPrefixes[i]);
+        return child;
+    }
+
+    // 每个线程独立遍历预先生成的任务顺序
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        int next() {
+            return position++ & (ORDERS - 1);
+        }
+    }
+}
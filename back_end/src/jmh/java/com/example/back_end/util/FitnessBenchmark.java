@@ -0,0 +1,64 @@
+package com.example.back_end.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * 适应度计算的吞吐量：解码时使用的 FitnessEvaluator，与在完整排课方案上重新计算的 Schedule.calculateFitness
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FitnessBenchmark {
+
+    private static final int SCHEDULES = 16;
+
+    @Param({ "1", "4", "10" })
+    private int scale;
+
+    private FitnessEvaluator evaluator;
+    private TaskList[] decoded;
+    private Schedule[] schedules;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ProblemSnapshot snapshot = BenchmarkData.snapshot(scale);
+        GreedyDecoder decoder = new GreedyDecoder(snapshot.getClassrooms(), snapshot.getTasks(), 64);
+        evaluator = new FitnessEvaluator(snapshot.getTasks(), snapshot.getClassrooms(), PreferenceMatrix.EMPTY);
+        Random random = new Random(42);
+        decoded = new TaskList[SCHEDULES];
+        schedules = new Schedule[SCHEDULES];
+        for (int i = 0; i < SCHEDULES; i++) {
+            decoded[i] = new TaskList(BenchmarkData.randomGenes(snapshot.getTasks().size(), random));
+            decoder.decode(decoded[i]);
+            schedules[i] = decoder.toSchedule(decoded[i]);
+        }
+    }
+
+    @Benchmark
+    public double evaluate() {
+        TaskList taskList = decoded[next++ & (SCHEDULES - 1)];
+        return evaluator.evaluate(taskList.getGenes(), taskList.getRooms(), taskList.getSlotStarts());
+    }
+
+    @Benchmark
+    public double calculateFitness() {
+        return schedules[next++ & (SCHEDULES - 1)].calculateFitness(FitnessWeights.DEFAULT, PreferenceMatrix.EMPTY);
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.back_end.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.BeanUtils;
+
+import com.example.back_end.entity.Class;
+import com.example.back_end.entity.Teacher;
+
+/*
+ * 按示例数据的统计分布生成任意规模的排课输入，用于大规模测试排课算法
+ * 分布直接取自示例数据（有放回抽样），不做参数拟合：
+ *   教室：类型、容量与教学楼的组合；
+ *   任务：周次与每周课时（courseWeeklyScheduleHours）、连堂节数、指定教室类型、是否指定教室、优先级、
+ *         课程性质、教学班人数与教学班组成中的行政班数；
+ *   教师的任务数、行政班出现在多少个教学班组成中，由此决定教师与行政班之间的冲突程度。
+ * scale 为任务数相对示例数据的倍数，tightness 为任务与教室之比相对示例数据的倍数：
+ * 教室数 = 示例教室数 * scale / tightness，tightness > 1 时教室更紧张。
+ * 生成的实体从抽中的示例行复制而来（NOT NULL 列都有值），编号与名称加上 "#序号" 后缀以保持唯一；
+ * 每复制一遍示例教室，教学楼也加一次后缀，使每栋教学楼的教室数与示例数据相近。
+ *
+ * 运行：mvn -P benchmark test-compile exec:exec -Dbenchmark.main=com.example.back_end.util.InstanceGenerator
+ *         -Dbenchmark.args="scale=10 tightness=1.2 out=target/instance-10.sql"
+ * 输出为 INSERT 语句，可在导入示例数据后直接执行，供排课服务使用。执行前会清空 teachers、classes、classrooms 与 tasks 表，
+ * 以及引用旧任务的排课结果（schedule_assignment、schedule_publication、旧版 assignment）与个性化请求（personalized_requests），
+ * 不要在保存有正式排课数据的数据库上执行。
+ */
+public class InstanceGenerator {
+
+    // 引用任务的表，导入新的排课输入前清空：排课结果的各版本、发布指针、旧版排课结果与个性化请求
+    static final List<String> DEPENDENT_TABLES = List.of("schedule_assignment", "schedule_publication", "assignment",
+            "personalized_requests");
+
+    private final List<com.example.back_end.entity.Classroom> sampleRooms;
+    private final List<com.example.back_end.entity.Task> sampleTasks;
+    private final List<Teacher> sampleTeachers;
+    private final List<Class> sampleClasses;
+    private final Map<String, Teacher> teachersById;
+    private final Map<String, Class> classesByName;
+    // 示例数据中每位有任务的教师的工号与任务数
+    private final List<Map.Entry<String, Integer>> teacherLoads;
+    // 示例数据中每个行政班的名称与所在教学班组成的个数
+    private final List<Map.Entry<String, Integer>> classDemands;
+
+    public InstanceGenerator(SqlDumpReader reader) {
+        this.sampleRooms = reader.read("classrooms", com.example.back_end.entity.Classroom.class);
+        this.sampleTasks = reader.read("tasks", com.example.back_end.entity.Task.class);
+        this.sampleTeachers = reader.read("teachers", Teacher.class);
+        this.sampleClasses = reader.read("classes", Class.class);
+        if (sampleRooms.isEmpty() || sampleTasks.isEmpty()) {
+            throw new IllegalArgumentException("Sample data has no classrooms or tasks");
+        }
+        this.teachersById = sampleTeachers.stream()
+                .collect(Collectors.toMap(Teacher::getId, Function.identity(), (a, b) -> a));
+        this.classesByName = sampleClasses.stream()
+                .collect(Collectors.toMap(Class::getClassName, Function.identity(), (a, b) -> a));
+        Map<String, Integer> loads = new LinkedHashMap<>();
+        Map<String, Integer> demands = new LinkedHashMap<>();
+        for (com.example.back_end.entity.Task task : sampleTasks) {
+            if (!isBlank(task.getTeacherEmployeeId())) {
+                loads.merge(task.getTeacherEmployeeId().trim(), 1, Integer::sum);
+            }
+            for (String name : classNames(task.getTeachingClassComposition())) {
+                demands.merge(name, 1, Integer::sum);
+            }
+        }
+        this.teacherLoads = new ArrayList<>(loads.entrySet());
+        this.classDemands = new ArrayList<>(demands.entrySet());
+    }
+
+    public Instance generate(double scale, double tightness, long seed) {
+        if (scale <= 0 || tightness <= 0) {
+            throw new IllegalArgumentException("Scale and tightness must be positive: " + scale + ", " + tightness);
+        }
+        Random random = new Random(seed);
+        int taskCount = Math.max(1, (int) Math.round(sampleTasks.size() * scale));
+        int roomCount = Math.max(1, (int) Math.round(sampleRooms.size() * scale / tightness));
+        List<com.example.back_end.entity.Classroom> classrooms = generateClassrooms(roomCount, random);
+
+        Map<Object, Integer> copies = new HashMap<>();
+        List<com.example.back_end.entity.Task> sources = new ArrayList<>(taskCount);
+        List<com.example.back_end.entity.Task> tasks = new ArrayList<>(taskCount);
+        int teacherSlots = 0;
+        int classSlots = 0;
+        for (int i = 0; i < taskCount; i++) {
+            com.example.back_end.entity.Task source = sampleTasks.get(random.nextInt(sampleTasks.size()));
+            com.example.back_end.entity.Task task = new com.example.back_end.entity.Task();
+            BeanUtils.copyProperties(source, task);
+            String suffix = suffix(copies, source);
+            // 教学班编号与课程编号（tasks 表的主键）都随示例行一起加后缀，保持唯一
+            task.setTeachingClassId(source.getTeachingClassId() + suffix);
+            task.setCourseId(source.getCourseId() + suffix);
+            task.setTeacherEmployeeId(null);
+            task.setInstructorName(null);
+            task.setTeachingClassComposition(null);
+            sources.add(source);
+            tasks.add(task);
+            teacherSlots += isBlank(source.getTeacherEmployeeId()) ? 0 : 1;
+            classSlots += classNames(source.getTeachingClassComposition()).size();
+        }
+
+        List<Teacher> teachers = new ArrayList<>();
+        List<Teacher> teacherQueue = drawTeachers(teacherSlots, copies, teachers, random);
+        List<Class> classes = new ArrayList<>();
+        List<Class> classQueue = drawClasses(classSlots, copies, classes, random);
+        int nextTeacher = 0;
+        int nextClass = 0;
+        for (int i = 0; i < taskCount; i++) {
+            com.example.back_end.entity.Task task = tasks.get(i);
+            com.example.back_end.entity.Task source = sources.get(i);
+            if (!isBlank(source.getTeacherEmployeeId())) {
+                Teacher teacher = teacherQueue.get(nextTeacher++);
+                task.setTeacherEmployeeId(teacher.getId());
+                task.setInstructorName(teacher.getName());
+            }
+            int members = classNames(source.getTeachingClassComposition()).size();
+            List<String> composition = new ArrayList<>(members);
+            for (int m = 0; m < members; m++, nextClass++) {
+                // 同一教学班组成中不能有重复的行政班：与后面第一个不重复的行政班交换
+                for (int j = nextClass; j < classQueue.size(); j++) {
+                    if (!composition.contains(classQueue.get(j).getClassName())) {
+                        Collections.swap(classQueue, nextClass, j);
+                        composition.add(classQueue.get(nextClass).getClassName());
+                        break;
+                    }
+                }
+            }
+            task.setTeachingClassComposition(composition.isEmpty() ? source.getTeachingClassComposition()
+                    : String.join(",", composition));
+            designate(task, source, classrooms, random);
+        }
+        return new Instance(teachers, classes, classrooms, tasks);
+    }
+
+    // 按示例教室的类型、容量与教学楼抽样，每复制一遍示例教室，教学楼加一次后缀
+    private List<com.example.back_end.entity.Classroom> generateClassrooms(int roomCount, Random random) {
+        Map<Object, Integer> copies = new HashMap<>();
+        List<com.example.back_end.entity.Classroom> classrooms = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            com.example.back_end.entity.Classroom source = sampleRooms.get(random.nextInt(sampleRooms.size()));
+            com.example.back_end.entity.Classroom classroom = new com.example.back_end.entity.Classroom();
+            BeanUtils.copyProperties(source, classroom);
+            String suffix = suffix(copies, source);
+            classroom.setClassroomId(source.getClassroomId() + suffix);
+            classroom.setClassroomName(source.getClassroomName() + suffix);
+            int block = i / sampleRooms.size();
+            if (block > 0 && !isBlank(source.getTeachingBuilding())) {
+                classroom.setTeachingBuilding(source.getTeachingBuilding() + "#" + block);
+            }
+            classrooms.add(classroom);
+        }
+        return classrooms;
+    }
+
+    /*
+     * 按示例教师的任务数抽样教师，直到任务数之和不少于 slots，
+     * 返回打乱后的 教师 序列（每位教师出现的次数为其任务数），按顺序分配给需要教师的任务
+     */
+    private List<Teacher> drawTeachers(int slots, Map<Object, Integer> copies, List<Teacher> teachers,
+            Random random) {
+        List<Teacher> queue = new ArrayList<>(slots);
+        while (queue.size() < slots) {
+            Map.Entry<String, Integer> load = teacherLoads.get(random.nextInt(teacherLoads.size()));
+            Teacher source = teachersById.getOrDefault(load.getKey(),
+                    sampleTeachers.isEmpty() ? new Teacher() : sampleTeachers.get(random.nextInt(sampleTeachers.size())));
+            Teacher teacher = new Teacher();
+            BeanUtils.copyProperties(source, teacher);
+            String suffix = suffix(copies, load);
+            teacher.setId(load.getKey() + suffix);
+            teacher.setName((source.getName() != null ? source.getName() : load.getKey()) + suffix);
+            teachers.add(teacher);
+            for (int k = 0; k < load.getValue(); k++) {
+                queue.add(teacher);
+            }
+        }
+        Collections.shuffle(queue, random);
+        return queue;
+    }
+
+    // 与 drawTeachers 相同，按示例行政班出现在教学班组成中的次数抽样行政班
+    private List<Class> drawClasses(int slots, Map<Object, Integer> copies, List<Class> classes, Random random) {
+        List<Class> queue = new ArrayList<>(slots);
+        while (queue.size() < slots) {
+            Map.Entry<String, Integer> demand = classDemands.get(random.nextInt(classDemands.size()));
+            Class source = classesByName.getOrDefault(demand.getKey(),
+                    sampleClasses.isEmpty() ? new Class() : sampleClasses.get(random.nextInt(sampleClasses.size())));
+            Class copy = new Class();
+            BeanUtils.copyProperties(source, copy);
+            String suffix = suffix(copies, demand);
+            copy.setClassId((source.getClassId() != null ? source.getClassId() : demand.getKey()) + suffix);
+            copy.setClassName(demand.getKey() + suffix);
+            classes.add(copy);
+            for (int k = 0; k < demand.getValue(); k++) {
+                queue.add(copy);
+            }
+        }
+        Collections.shuffle(queue, random);
+        return queue;
+    }
+
+    // 示例任务指定了教室时，从生成的教室中随机指定一间类型相符且容量足够的教室，没有时取消指定
+    private void designate(com.example.back_end.entity.Task task, com.example.back_end.entity.Task source,
+            List<com.example.back_end.entity.Classroom> classrooms, Random random) {
+        if (isBlank(source.getDesignatedClassroom())) {
+            return;
+        }
+        String type = source.getDesignatedClassroomType();
+        int size = task.getTeachingClassSize() != null ? task.getTeachingClassSize() : 0;
+        List<com.example.back_end.entity.Classroom> fits = new ArrayList<>();
+        for (com.example.back_end.entity.Classroom classroom : classrooms) {
+            if ((isBlank(type) || type.equals(classroom.getClassroomType()))
+                    && classroom.getMaximumClassSeatingCapacity() != null
+                    && classroom.getMaximumClassSeatingCapacity() >= size) {
+                fits.add(classroom);
+            }
+        }
+        com.example.back_end.entity.Classroom room = fits.isEmpty() ? null : fits.get(random.nextInt(fits.size()));
+        task.setDesignatedClassroom(room != null ? room.getClassroomName() : "");
+        if (!isBlank(source.getDesignatedTeachingBuilding())) {
+            task.setDesignatedTeachingBuilding(room != null ? room.getTeachingBuilding() : "");
+        }
+    }
+
+    // 同一示例行第 k 次被抽中时的后缀，第一次没有后缀
+    private static String suffix(Map<Object, Integer> copies, Object source) {
+        int copy = copies.merge(source, 1, Integer::sum) - 1;
+        return copy == 0 ? "" : "#" + copy;
+    }
+
+    private static List<String> classNames(String composition) {
+        List<String> names = new ArrayList<>();
+        if (composition != null) {
+            for (String name : composition.split("[,，]")) {
+                if (!name.trim().isEmpty() && !names.contains(name.trim())) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        return names;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /*
+     * 生成的排课输入
+     */
+    public record Instance(List<Teacher> teachers, List<Class> classes,
+            List<com.example.back_end.entity.Classroom> classrooms, List<com.example.back_end.entity.Task> tasks) {
+
+        // 转换为排课算法使用的快照
+        public ProblemSnapshot toSnapshot() {
+            List<Classroom> rooms = classrooms.stream().map(Classroom::new).collect(Collectors.toList());
+            List<Task> taskList = tasks.stream().map(Task::new).collect(Collectors.toList());
+            return new ProblemSnapshot(0, rooms, taskList);
+        }
+
+        /*
+         * 写成 INSERT 语句，先清空四张输入表，以及引用旧任务的排课结果与个性化请求
+         * 排课结果与个性化请求的表由排课服务启动时创建，在只导入了示例数据的库中可能不存在，只在存在时清空。
+         * 行政班名称带后缀后，教学班组成可能超过示例数据中 teaching_class_composition 列的 varchar(30)，此时先加宽该列
+         */
+        public void write(Writer writer) throws IOException {
+            SqlDumpWriter sql = new SqlDumpWriter(writer);
+            sql.comment("Synthetic instance: " + tasks.size() + " tasks, " + classrooms.size() + " classrooms, "
+                    + teachers.size() + " teachers, " + classes.size() + " classes");
+            sql.comment("WARNING: deletes all schedules and personalized requests in this database");
+            int compositionLength = tasks.stream().map(com.example.back_end.entity.Task::getTeachingClassComposition)
+                    .mapToInt(composition -> composition != null ? composition.length() : 0).max().orElse(0);
+            if (compositionLength > 30) {
+                writer.write("ALTER TABLE `tasks` MODIFY `teaching_class_composition` varchar(255) NULL DEFAULT NULL;\n");
+            }
+            for (String table : DEPENDENT_TABLES) {
+                deleteIfExists(writer, table);
+            }
+            for (String table : List.of("tasks", "classrooms", "classes", "teachers")) {
+                writer.write("DELETE FROM `" + table + "`;\n");
+            }
+            sql.insert(teachers, Teacher.class);
+            sql.insert(classes, Class.class);
+            sql.insert(classrooms, com.example.back_end.entity.Classroom.class);
+            sql.insert(tasks, com.example.back_end.entity.Task.class);
+        }
+
+        private static void deleteIfExists(Writer writer, String table) throws IOException {
+            writer.write("SET @statement = IF((SELECT COUNT(*) FROM information_schema.tables "
+                    + "WHERE table_schema = DATABASE() AND table_name = '" + table + "') > 0, "
+                    + "'DELETE FROM `" + table + "`', 'DO 0');\n");
+            writer.write("PREPARE statement FROM @statement;\nEXECUTE statement;\nDEALLOCATE PREPARE statement;\n");
+        }
+    }
+
+    // 参数：scale=10 tightness=1.0 seed=42 source=../示例数据/icss_service_db.sql out=target/instance.sql
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected name=value: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        double scale = Double.parseDouble(options.getOrDefault("scale", "10"));
+        double tightness = Double.parseDouble(options.getOrDefault("tightness", "1.0"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Path source = Path.of(options.getOrDefault("source",
+                System.getProperty(BenchmarkData.DATA_PROPERTY, BenchmarkData.DEFAULT_DATA)));
+        Path out = Path.of(options.getOrDefault("out", "target/instance.sql"));
+
+        Instance instance = new InstanceGenerator(new SqlDumpReader(source)).generate(scale, tightness, seed);
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            instance.write(writer);
+        }
+        System.out.printf("%d tasks, %d classrooms, %d teachers, %d classes -> %s%n", instance.tasks().size(),
+                instance.classrooms().size(), instance.teachers().size(), instance.classes().size(), out);
+        System.err.println("WARNING: executing " + out + " replaces teachers, classes, classrooms and tasks, "
+                + "and deletes " + String.join(", ", DEPENDENT_TABLES) + " in the target database");
+    }
+}
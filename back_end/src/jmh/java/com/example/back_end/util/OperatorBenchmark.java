@@ -0,0 +1,73 @@
+package com.example.back_end.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * 遗传算子的吞吐量：交叉（含子代指纹的增量更新，与 GeneticAlgorithmScheduler.crossover 相同）与插入变异
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OperatorBenchmark {
+
+    private static final int PARENTS = 64;
+
+    @Param({ "1", "10" })
+    private int scale;
+
+    @Param({ "ORDER", "PARTIALLY_MAPPED", "CYCLE" })
+    private CrossoverOperator operator;
+
+    private CrossoverEngine crossoverEngine;
+    private int[][] parents;
+    private long[] fingerprints;
+    private TaskList mutated;
+    private Random random;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        int taskCount = BenchmarkData.snapshot(scale).getTasks().size();
+        crossoverEngine = new CrossoverEngine(operator, taskCount);
+        random = new Random(42);
+        parents = new int[PARENTS][];
+        fingerprints = new long[PARENTS];
+        for (int i = 0; i < PARENTS; i++) {
+            parents[i] = BenchmarkData.randomGenes(taskCount, random);
+            fingerprints[i] = TaskOrderFingerprint.of(parents[i]);
+        }
+        mutated = new TaskList(parents[0].clone());
+    }
+
+    @Benchmark
+    public long crossover() {
+        int i = next++ & (PARENTS - 1);
+        int[] parent1 = parents[i];
+        int[] child = crossoverEngine.crossover(parent1, parents[(i + 1) & (PARENTS - 1)], random);
+        return TaskOrderFingerprint.update(fingerprints[i], parent1, child);
+    }
+
+    // 变异只与任务数有关，与交叉算子无关
+    @Benchmark
+    public long mutate() {
+        int size = mutated.size();
+        GeneticAlgorithmScheduler.moveTask(mutated, random.nextInt(size), random.nextInt(size));
+        return mutated.getFingerprint();
+    }
+}
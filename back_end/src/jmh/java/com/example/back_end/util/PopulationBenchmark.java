@@ -0,0 +1,81 @@
+package com.example.back_end.util;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * 工作线程数的影响：与 GeneticAlgorithmScheduler 相同，在 ForkJoinPool 中并行解码一代的全部个体
+ * 每次操作解码 populationSize 个随机任务顺序，workerThreads 为 1 时顺序执行。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PopulationBenchmark {
+
+    @Param({ "1", "4" })
+    private int scale;
+
+    @Param({ "1", "2", "4", "8" })
+    private int workerThreads;
+
+    @Param({ "100" })
+    private int populationSize;
+
+    private GreedyDecoder decoder;
+    private int[][] orders;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        ProblemSnapshot snapshot = BenchmarkData.snapshot(scale);
+        List<Task> tasks = snapshot.getTasks();
+        decoder = new GreedyDecoder(snapshot.getClassrooms(), tasks, 64, PreferenceMatrix.EMPTY,
+                FitnessWeights.DEFAULT, RoomSelection.BEST_FIT);
+        Random random = new Random(42);
+        orders = new int[populationSize][];
+        for (int i = 0; i < populationSize; i++) {
+            orders[i] = BenchmarkData.randomGenes(tasks.size(), random);
+        }
+        pool = workerThreads > 1 ? new ForkJoinPool(workerThreads) : null;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public double decodePopulation() {
+        IntToDoubleFunction decode = i -> {
+            TaskList taskList = new TaskList(orders[i]);
+            decoder.decode(taskList);
+            return taskList.getFitness();
+        };
+        if (pool == null) {
+            return IntStream.range(0, populationSize).mapToDouble(decode).sum();
+        }
+        return pool.submit(() -> IntStream.range(0, populationSize).parallel().mapToDouble(decode).sum()).join();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.back_end.util;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.Column;
+
+/*
+ * 读取 示例数据/icss_service_db.sql 这类 MySQL 导出文件中的数据，不需要数据库
+ * 按 CREATE TABLE 中的列顺序解析每一行 INSERT INTO ... VALUES (...)，带列名列表的 INSERT（SqlDumpWriter 的输出）按其列名解析，
+ * 再按实体字段对应的列名赋值，只支持字符串与数值字段。
+ */
+public class SqlDumpReader {
+
+    private final String sql;
+
+    public SqlDumpReader(Path file) throws IOException {
+        this.sql = Files.readString(file, StandardCharsets.UTF_8);
+    }
+
+    public <T> List<T> read(String table, Class<T> entityClass) {
+        List<String> tableColumns = null;
+        Map<String, Field> fields = new HashMap<>();
+        for (Field field : entityClass.getDeclaredFields()) {
+            field.setAccessible(true);
+            fields.put(columnName(field), field);
+        }
+        List<T> rows = new ArrayList<>();
+        String prefix = "INSERT INTO `" + table + "` ";
+        for (String line : sql.split("\r?\n")) {
+            if (!line.startsWith(prefix)) {
+                continue;
+            }
+            int valuesAt = line.indexOf("VALUES (", prefix.length());
+            List<String> columns;
+            if (line.charAt(prefix.length()) == '(') {
+                columns = new ArrayList<>();
+                for (String column : line.substring(prefix.length() + 1, line.lastIndexOf(')', valuesAt)).split(",")) {
+                    columns.add(column.trim().replace("`", ""));
+                }
+            } else {
+                if (tableColumns == null) {
+                    tableColumns = columns(table);
+                }
+                columns = tableColumns;
+            }
+            List<String> values = values(line.substring(valuesAt + "VALUES (".length(), line.lastIndexOf(')')));
+            try {
+                T row = entityClass.getDeclaredConstructor().newInstance();
+                for (int i = 0; i < columns.size() && i < values.size(); i++) {
+                    Field field = fields.get(columns.get(i));
+                    if (field != null && values.get(i) != null) {
+                        field.set(row, convert(values.get(i), field.getType()));
+                    }
+                }
+                rows.add(row);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot read " + table + " into " + entityClass.getSimpleName(), e);
+            }
+        }
+        return rows;
+    }
+
+    // 实体字段对应的列名：@Column 指定的列名，没有时与 Spring 的默认命名规则相同，驼峰转为下划线
+    static String columnName(Field field) {
+        Column column = field.getAnnotation(Column.class);
+        if (column != null && !column.name().isEmpty()) {
+            return column.name();
+        }
+        return field.getName().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    }
+
+    // CREATE TABLE 中按顺序定义的列名
+    private List<String> columns(String table) {
+        int start = sql.indexOf("CREATE TABLE `" + table + "`");
+        if (start < 0) {
+            throw new IllegalArgumentException("Table not found in dump: " + table);
+        }
+        List<String> columns = new ArrayList<>();
+        for (String line : sql.substring(start, sql.indexOf(") ENGINE", start)).split("\r?\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("`")) {
+                columns.add(trimmed.substring(1, trimmed.indexOf('`', 1)));
+            }
+        }
+        return columns;
+    }
+
+    // 解析 VALUES 中以逗号分隔的值，字符串支持反斜杠转义，NULL 解析为 null
+    private static List<String> values(String text) {
+        List<String> values = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            while (text.charAt(i) == ' ') {
+                i++;
+            }
+            if (text.charAt(i) == '\'') {
+                StringBuilder value = new StringBuilder();
+                for (i++; text.charAt(i) != '\''; i++) {
+                    if (text.charAt(i) == '\\') {
+                        i++;
+                    }
+                    value.append(text.charAt(i));
+                }
+                values.add(value.toString());
+                i++;
+            } else {
+                int end = text.indexOf(',', i);
+                String value = text.substring(i, end < 0 ? text.length() : end).trim();
+                values.add("NULL".equals(value) ? null : value);
+                i = end < 0 ? text.length() : end;
+            }
+            while (i < text.length() && text.charAt(i) != ',') {
+                i++;
+            }
+            i++;
+        }
+        return values;
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        if (type == String.class) {
+            return value;
+        }
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (type == Integer.class) {
+            return Integer.valueOf(value);
+        }
+        if (type == Long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == Double.class) {
+            return Double.valueOf(value);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.back_end.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jakarta.persistence.Table;
+
+/*
+ * 把实体写成 MySQL 的 INSERT 语句，列名与 SqlDumpReader 相同，可直接导入示例数据建立的数据库
+ * 每条语句带有列名列表，不依赖表中列的顺序。
+ */
+public class SqlDumpWriter {
+
+    private final Writer writer;
+
+    public SqlDumpWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void comment(String text) throws IOException {
+        writer.write("-- " + text + "\n");
+    }
+
+    public <T> void insert(List<T> rows, Class<T> entityClass) throws IOException {
+        Table table = entityClass.getAnnotation(Table.class);
+        String tableName = table != null ? table.name() : entityClass.getSimpleName().toLowerCase();
+        List<Field> fields = new ArrayList<>();
+        for (Field field : entityClass.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        String columns = fields.stream()
+                .map(field -> "`" + SqlDumpReader.columnName(field) + "`")
+                .collect(Collectors.joining(", "));
+        for (T row : rows) {
+            StringBuilder values = new StringBuilder();
+            for (Field field : fields) {
+                if (values.length() > 0) {
+                    values.append(", ");
+                }
+                values.append(literal(read(field, row)));
+            }
+            writer.write("INSERT INTO `" + tableName + "` (" + columns + ") VALUES (" + values + ");\n");
+        }
+    }
+
+    private static Object read(Field field, Object row) {
+        try {
+            return field.get(row);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read " + field, e);
+        }
+    }
+
+    private static String literal(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        return "'" + value.toString().replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.back_end.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.back_end.util.ScheduleWriter;
+import com.example.back_end.util.SchedulerConfig;
+
+@Configuration
+public class SchedulerConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulerConfiguration.class);
+
+    // 默认排课参数，绑定 application.properties 中的 scheduler.* 配置
+    @Bean
+    @ConfigurationProperties(prefix = "scheduler")
+    public SchedulerConfig schedulerConfig() {
+        return new SchedulerConfig();
+    }
+
+    // 启动时把旧版 assignment 表中的排课迁移为第一个发布版本，已经发布过排课结果时不做任何修改
+    @Bean
+    public CommandLineRunner migrateLegacyAssignments(ScheduleWriter scheduleWriter) {
+        return args -> {
+            int migrated = scheduleWriter.migrateLegacyAssignments();
+            if (migrated > 0) {
+                log.info("Migrated {} rows from assignment into schedule_assignment as version 1", migrated);
+            }
+        };
+    }
+}
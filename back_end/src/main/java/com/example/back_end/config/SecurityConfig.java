@@ -2,6 +2,7 @@ package com.example.back_end.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -38,8 +39,12 @@ public class SecurityConfig {
                 //允许排课结果Assignment相关API访问
                 .requestMatchers("/api/**").permitAll()
                 .requestMatchers("/api/assignments/generate").permitAll()
+                //健康检查公开，排课指标与 Prometheus 抓取需要 ACTUATOR 角色（HTTP Basic 认证）
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ACTUATOR")
                 .anyRequest().authenticated()
-            );
+            )
+            .httpBasic(Customizer.withDefaults());
 
         return http.build();
     }
@@ -2,14 +2,23 @@ package com.example.back_end.controller;
 
 import com.example.back_end.dto.ApiResponseDTO;
 import com.example.back_end.dto.AssignmentDTO;
+import com.example.back_end.dto.ScheduleJobDTO;
+import com.example.back_end.dto.ScheduleJobRequestDTO;
+import com.example.back_end.dto.ScheduleRepairDTO;
 import com.example.back_end.entity.Assignment;
 import com.example.back_end.service.AssignmentService;
+import com.example.back_end.service.ScheduleJobService;
 import com.example.back_end.util.AnalysisResult;
+import com.example.back_end.util.ScheduleJob;
+import com.example.back_end.util.ScheduleProgress;
+import com.example.back_end.util.ScheduleRepairResult;
+import com.example.back_end.util.ScheduleWriteResult;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -17,18 +26,23 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "http://localhost:5173")
 public class AssignmentController {
     private final AssignmentService assignmentService;
+    private final ScheduleJobService scheduleJobService;
 
-    public AssignmentController(AssignmentService assignmentService) {
+    public AssignmentController(AssignmentService assignmentService, ScheduleJobService scheduleJobService) {
         this.assignmentService = assignmentService;
+        this.scheduleJobService = scheduleJobService;
     }
 
-    // 生成排课
+    // 生成排课（异步提交，使用 /jobs/{jobId} 查询进度）
+    @Deprecated
     @GetMapping("/generate")
     public ResponseEntity<String> generateAssignments() {
         try {
             System.out.println("开始排课");
-            assignmentService.generateAssignments();
-            return ResponseEntity.ok("排课成功");
+            ScheduleJob job = scheduleJobService.submit(null);
+            return ResponseEntity.ok("排课任务已提交，任务ID: " + job.getId());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503).body("排课任务队列已满，请稍后再试");
         } catch (Exception e) {
             e.printStackTrace();
             System.out.println("排课失败" + e.getMessage());
@@ -36,6 +50,52 @@ public class AssignmentController {
         }
     }
 
+    // 提交排课任务
+    @PostMapping("/jobs")
+    public ResponseEntity<ApiResponseDTO<ScheduleJobDTO>> submitScheduleJob(
+            @RequestBody(required = false) ScheduleJobRequestDTO request) {
+        try {
+            ScheduleJob job = scheduleJobService.submit(request);
+            return ResponseEntity.ok(ApiResponseDTO.success("排课任务已提交", convertToDTO(job)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.ok(ApiResponseDTO.error("排课参数不合法: " + e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.ok(ApiResponseDTO.error("排课任务队列已满，请稍后再试"));
+        } catch (Exception e) {
+            return ResponseEntity.ok(ApiResponseDTO.error("提交排课任务失败: " + e.getMessage()));
+        }
+    }
+
+    // 获取所有排课任务
+    @GetMapping("/jobs")
+    public ResponseEntity<ApiResponseDTO<List<ScheduleJobDTO>>> getScheduleJobs() {
+        List<ScheduleJobDTO> jobDTOs = scheduleJobService.findAll().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(ApiResponseDTO.success("获取排课任务成功", jobDTOs));
+    }
+
+    // 查询排课任务状态
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponseDTO<ScheduleJobDTO>> getScheduleJob(@PathVariable String jobId) {
+        return scheduleJobService.findById(jobId)
+                .map(job -> ResponseEntity.ok(ApiResponseDTO.success("获取排课任务成功", convertToDTO(job))))
+                .orElseGet(() -> ResponseEntity.ok(ApiResponseDTO.error("未找到该排课任务")));
+    }
+
+    // 取消排课任务
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponseDTO<ScheduleJobDTO>> cancelScheduleJob(@PathVariable String jobId) {
+        if (!scheduleJobService.findById(jobId).isPresent()) {
+            return ResponseEntity.ok(ApiResponseDTO.error("未找到该排课任务"));
+        }
+        if (!scheduleJobService.cancel(jobId)) {
+            return ResponseEntity.ok(ApiResponseDTO.error("排课任务已结束，无法取消"));
+        }
+        ScheduleJob job = scheduleJobService.findById(jobId).get();
+        return ResponseEntity.ok(ApiResponseDTO.success("已请求取消排课任务", convertToDTO(job)));
+    }
+
     // 获取所有排课结果
     @GetMapping("/getAll")
     public ResponseEntity<ApiResponseDTO<List<AssignmentDTO>>> getAllAssignments() {
@@ -207,6 +267,17 @@ public class AssignmentController {
             return ResponseEntity.ok(ApiResponseDTO.error("排课结果分析失败: " + e.getMessage()));
         }
     }
+
+    // 增量修复排课：只重新安排因任务或教室修改而失效的排课，其余排课保持不变
+    @PostMapping("/repair")
+    public ResponseEntity<ApiResponseDTO<ScheduleRepairDTO>> repairAssignments() {
+        try {
+            ScheduleRepairResult result = assignmentService.repairSchedule();
+            return ResponseEntity.ok(ApiResponseDTO.success("修复排课成功", convertToDTO(result)));
+        } catch (Exception e) {
+            return ResponseEntity.ok(ApiResponseDTO.error("修复排课失败: " + e.getMessage()));
+        }
+    }
     // DTO转换为实体
     private Assignment convertToEntity(AssignmentDTO dto) {
         Assignment entity = new Assignment();
@@ -220,6 +291,31 @@ public class AssignmentController {
         return entity;
     }
 
+    // 排课任务转换为DTO
+    private ScheduleJobDTO convertToDTO(ScheduleJob job) {
+        ScheduleProgress progress = job.getProgress();
+        ScheduleWriteResult writeResult = progress.getWriteResult();
+        return ScheduleJobDTO.builder()
+                .jobId(job.getId())
+                .status(job.getStatus().name())
+                .message(job.getMessage())
+                .currentGeneration(progress.getGeneration())
+                .maxGenerations(progress.getMaxGenerations())
+                .bestFitness(progress.getBestFitness())
+                .tasksPlaced(progress.getTasksPlaced())
+                .totalTasks(progress.getTotalTasks())
+                .fitnessBreakdown(progress.getFitnessBreakdown())
+                .stopReason(progress.getStopReason() != null ? progress.getStopReason().getDescription() : null)
+                .publishedVersion(writeResult != null ? writeResult.getVersion() : null)
+                .rowsWritten(writeResult != null ? writeResult.getRowsWritten() : null)
+                .persistMillis(writeResult != null ? writeResult.getElapsedMillis() : null)
+                .submittedAt(job.getSubmittedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .config(job.getConfig())
+                .build();
+    }
+
     // 实体转换为DTO
     private AssignmentDTO convertToDTO(Assignment entity) {
         AssignmentDTO dto = new AssignmentDTO();
@@ -233,4 +329,19 @@ public class AssignmentController {
         return dto;
     }
 
+
+    // 增量修复结果转换为DTO
+    private ScheduleRepairDTO convertToDTO(ScheduleRepairResult result) {
+        return ScheduleRepairDTO.builder()
+                .kept(result.getKept())
+                .repaired(result.getRepaired())
+                .displaced(result.getDisplaced())
+                .unplaced(result.getUnplaced())
+                .removed(result.getRemoved())
+                .fitness(result.getFitness())
+                .publishedVersion(result.getWriteResult().getVersion())
+                .rowsWritten(result.getWriteResult().getRowsWritten())
+                .elapsedMillis(result.getElapsedMillis())
+                .build();
+    }
 }
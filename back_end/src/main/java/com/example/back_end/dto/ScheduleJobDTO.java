@@ -0,0 +1,37 @@
+//排课任务状态传输对象
+
+package com.example.back_end.dto;
+
+import com.example.back_end.util.FitnessBreakdown;
+import com.example.back_end.util.SchedulerConfig;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleJobDTO {
+    private String jobId; // 任务ID
+    private String status; // QUEUED / RUNNING / SUCCEEDED / FAILED / CANCELLED
+    private String message; // 结束时的说明
+    private Integer currentGeneration; // 已完成的代数，-1 表示尚未开始进化
+    private Integer maxGenerations; // 最大代数
+    private Double bestFitness; // 当前最优适应度
+    private Integer tasksPlaced; // 当前最优方案已排入的任务数
+    private Integer totalTasks; // 任务总数
+    private FitnessBreakdown fitnessBreakdown; // 最终结果的适应度各组成部分，进化结束前为空
+    private String stopReason; // 进化结束的原因，未结束时为空
+    private Long publishedVersion; // 保存后发布的排课版本，未保存时为空
+    private Integer rowsWritten; // 保存结果时写入的行数，未保存时为空
+    private Long persistMillis; // 保存结果的耗时（毫秒）
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private SchedulerConfig config; // 本次排课使用的参数（含实际使用的随机种子）
+}
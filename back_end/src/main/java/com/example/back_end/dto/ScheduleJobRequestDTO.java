@@ -0,0 +1,32 @@
+//排课任务提交参数
+
+package com.example.back_end.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleJobRequestDTO {
+    // 以下参数为空时使用 application.properties 中的配置
+    private Integer populationSize; // 种群大小
+    private Integer maxGenerations; // 最大迭代次数
+    private Long timeBudgetMillis; // 运行时间上限（毫秒），0 表示不限制
+    private Integer stallGenerations; // 连续多少代没有提升时提前结束，0 表示不启用
+    private Double targetFitness; // 达到该适应度时提前结束
+    private Integer eliteCount; // 每代保留的最优个体数
+    private Double mutationRate; // 变异率
+    private Double crossoverRate; // 交叉率
+    private String crossoverOperator; // 交叉算子：ORDER / PARTIALLY_MAPPED / CYCLE
+    private String selectionStrategy; // 选择方式：ROULETTE / TOURNAMENT / RANK
+    private Integer tournamentSize; // 锦标赛规模
+    private Long seed; // 随机种子，配置中也未指定时随机生成
+    private Integer workerThreads; // 工作线程数，0 表示使用全部CPU核心
+    private Integer islands; // 岛屿数量
+    private Long localSearchMillis; // 局部搜索时间上限（毫秒），0 表示不做局部搜索
+    private String roomSelection; // 教室选择方式：FIRST_FIT / BEST_FIT / BEST_FIT_SAME_BUILDING
+}
@@ -0,0 +1,24 @@
+//增量修复排课结果传输对象
+
+package com.example.back_end.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleRepairDTO {
+    private Integer kept; // 沿用原安排的任务数
+    private Integer repaired; // 重新排入的失效或新增任务数
+    private Integer displaced; // 为排入失效任务而被挪动的任务数
+    private Integer unplaced; // 仍无法排入的任务数
+    private Integer removed; // 丢弃的已删除任务的排课数
+    private Double fitness; // 修复后的适应度
+    private Long publishedVersion; // 修复结果发布的排课版本
+    private Integer rowsWritten; // 发布时写入的行数
+    private Long elapsedMillis; // 修复与发布的总耗时（毫秒）
+}
@@ -4,12 +4,21 @@ package com.example.back_end.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/*
+ * 排课结果
+ * 每一行在排课版本 [validFrom, validTo) 内有效，内容未变化的行在多个版本之间共享；
+ * 读取时只返回 schedule_publication 指向的已发布版本中有效的行。
+ */
 @Data
 @Entity
+@IdClass(AssignmentKey.class)
+@Table(name = "schedule_assignment")
 @NoArgsConstructor
 @AllArgsConstructor
 public class Assignment {
@@ -34,4 +43,13 @@ public class Assignment {
     //周数
     //格式: 1,2,3,4,5,6,7,8,9,10,11,12
     String weeks;
+
+    //从该版本开始有效
+    @Id
+    @Column(name = "valid_from")
+    Long validFrom;
+
+    //从该版本开始失效，仍有效时为 Long.MAX_VALUE
+    @Column(name = "valid_to")
+    Long validTo;
 }
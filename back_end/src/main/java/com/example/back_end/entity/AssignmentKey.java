@@ -0,0 +1,16 @@
+package com.example.back_end.entity;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 排课结果的主键：教学班ID与该行开始有效的版本
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssignmentKey implements Serializable {
+    private String teachingClassId;
+    private Long validFrom;
+}
@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 @Data
 @Entity
 @Table(name = "personalized_requests")
+@EntityListeners(ProblemDataListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PersonalizedRequest {
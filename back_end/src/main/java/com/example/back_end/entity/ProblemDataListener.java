@@ -0,0 +1,28 @@
+package com.example.back_end.entity;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/*
+ * 排课输入数据（任务、教室、个性化请求）的版本号
+ * 通过 JPA 写入、修改或删除这些实体后版本号加一，排课据此判断缓存的问题快照是否仍然有效。
+ * 版本号只在本进程内有效，绕过 JPA 直接修改数据库不会被感知。
+ */
+public class ProblemDataListener {
+
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    public static long currentVersion() {
+        return VERSION.get();
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        VERSION.incrementAndGet();
+    }
+}
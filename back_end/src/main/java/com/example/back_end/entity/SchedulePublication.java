@@ -0,0 +1,34 @@
+package com.example.back_end.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * 当前发布的排课版本
+ * 表中只有 id = 1 的一行，发布新版本时在写入该版本的同一事务中更新 currentVersion，
+ * 事务提交后所有读取立即切换到新版本；0 表示尚未发布过排课结果。
+ */
+@Data
+@Entity
+@Table(name = "schedule_publication")
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulePublication {
+    public static final int CURRENT = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "current_version")
+    private Long currentVersion;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -5,32 +5,59 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.example.back_end.entity.Assignment;
+import com.example.back_end.entity.AssignmentKey;
 
 import java.util.List;
+import java.util.Optional;
 
+/*
+ * 排课结果查询
+ * 所有查询都只返回当前发布版本中有效的行，发布指针与排课结果在同一条语句中读取，
+ * 因此不会读到正在写入的版本，也不会被写入阻塞。
+ */
 @Repository
-public interface AssignmentRepository extends JpaRepository<Assignment, String> {
-    
-      
+public interface AssignmentRepository extends JpaRepository<Assignment, AssignmentKey> {
+
+    String PUBLISHED = "SELECT a FROM Assignment a, SchedulePublication p WHERE p.id = 1 "
+            + "AND a.validFrom <= p.currentVersion AND a.validTo > p.currentVersion";
+
+    String PUBLISHED_NATIVE = "JOIN schedule_publication p ON p.id = 1 "
+            + "AND a.valid_from <= p.current_version AND a.valid_to > p.current_version ";
+
+    // 查找当前发布的所有排课
+    @Query(PUBLISHED)
+    List<Assignment> findPublished();
+
+    // 根据教学班ID查找当前发布的排课
+    @Query(PUBLISHED + " AND a.teachingClassId = :teachingClassId")
+    Optional<Assignment> findPublishedByTeachingClassId(@Param("teachingClassId") String teachingClassId);
+
     // 根据教室ID查找排课
-    List<Assignment> findByClassRoomId(String classRoomId);
+    @Query(PUBLISHED + " AND a.classRoomId = :classRoomId")
+    List<Assignment> findByClassRoomId(@Param("classRoomId") String classRoomId);
     
     // 查询所有与特定课程相关的排课
-    List<Assignment> findByCourseName(String courseName);
+    @Query(PUBLISHED + " AND a.courseName = :courseName")
+    List<Assignment> findByCourseName(@Param("courseName") String courseName);
     
     // 通过课程ID和教室ID查询特定排课
-    Assignment findByCourseIdAndClassRoomId(String courseId, String classRoomId);
+    @Query(PUBLISHED + " AND a.courseId = :courseId AND a.classRoomId = :classRoomId")
+    Assignment findByCourseIdAndClassRoomId(@Param("courseId") String courseId,
+            @Param("classRoomId") String classRoomId);
     
     // 通过时间段查询排课（模糊匹配）
-    List<Assignment> findBySlotContaining(String slotPattern);
+    @Query(PUBLISHED + " AND a.slot LIKE CONCAT('%', :slotPattern, '%')")
+    List<Assignment> findBySlotContaining(@Param("slotPattern") String slotPattern);
     
     // 查询与某个班级关联的所有排课（通过关联Task表）
-    @Query(value = "SELECT a.* FROM assignment a JOIN tasks t ON a.course_id = t.course_id " +
-           "WHERE t.teaching_class_composition LIKE CONCAT('%', :className, '%')", nativeQuery = true)
+    @Query(value = "SELECT a.* FROM schedule_assignment a " + PUBLISHED_NATIVE
+           + "JOIN tasks t ON a.course_id = t.course_id "
+           + "WHERE t.teaching_class_composition LIKE CONCAT('%', :className, '%')", nativeQuery = true)
     List<Assignment> findByClassName(@Param("className") String className);
     
     // 查询与某个教师关联的所有排课（通过关联Task表）
-    @Query(value = "SELECT a.* FROM assignment a JOIN tasks t ON a.course_id = t.course_id " +
-           "WHERE t.instructor_name = :teacherName", nativeQuery = true)
+    @Query(value = "SELECT a.* FROM schedule_assignment a " + PUBLISHED_NATIVE
+           + "JOIN tasks t ON a.course_id = t.course_id "
+           + "WHERE t.instructor_name = :teacherName", nativeQuery = true)
     List<Assignment> findByTeacherName(@Param("teacherName") String teacherName);
-}
\ No newline at end of file
+}
@@ -76,4 +76,23 @@ public interface ClassroomRepository extends JpaRepository<Classroom, String> {
      * 根据教学楼和楼层查询教室
      */
     List<Classroom> findByTeachingBuildingAndFloor(String teachingBuilding, String floor);
+
+    /**
+     * 排课只需要的教室字段
+     */
+    interface SolverView {
+        String getClassroomId();
+        String getClassroomName();
+        Integer getMaximumClassSeatingCapacity();
+        String getClassroomType();
+        String getTeachingBuilding();
+    }
+
+    /**
+     * 查询排课所需的教室字段
+     */
+    @Query("SELECT c.classroomId AS classroomId, c.classroomName AS classroomName, "
+            + "c.maximumClassSeatingCapacity AS maximumClassSeatingCapacity, c.classroomType AS classroomType, "
+            + "c.teachingBuilding AS teachingBuilding FROM Classroom c ORDER BY c.classroomId")
+    List<SolverView> findSolverViews();
 }
\ No newline at end of file
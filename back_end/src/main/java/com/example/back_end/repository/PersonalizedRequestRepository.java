@@ -2,6 +2,7 @@ package com.example.back_end.repository;
 
 import com.example.back_end.entity.PersonalizedRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +16,17 @@ public interface PersonalizedRequestRepository extends JpaRepository<Personalize
     
     // 新增方法：根据用户ID和任务ID查询申请
     List<PersonalizedRequest> findByUserIdAndTaskId(Long userId, String taskId);
+
+    // 按 (教学班, 星期, 时段) 汇总的请求数，排课只需要汇总结果，不必逐条加载请求
+    interface PreferenceCount {
+        String getTaskId();
+        String getPreferDay();
+        String getPreferPeriod();
+        Long getRequestCount();
+    }
+
+    @Query("SELECT r.taskId AS taskId, r.preferDay AS preferDay, r.preferPeriod AS preferPeriod, "
+            + "COUNT(r) AS requestCount FROM PersonalizedRequest r "
+            + "GROUP BY r.taskId, r.preferDay, r.preferPeriod")
+    List<PreferenceCount> countPreferences();
 }
\ No newline at end of file
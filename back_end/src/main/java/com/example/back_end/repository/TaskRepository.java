@@ -2,6 +2,7 @@ package com.example.back_end.repository;
 
 import com.example.back_end.entity.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -28,4 +29,29 @@ public interface TaskRepository extends JpaRepository<Task, String> {
     List<Task> findByInstructorNameAndAcademicYearTerm(String instructorName, String academicYearTerm);
     
     List<Task> findByTeachingClassCompositionContainingAndAcademicYearTerm(String className, String academicYearTerm);
+
+    // 排课只需要的任务字段，避免加载整个 tasks 表的所有列
+    interface SolverView {
+        String getTeachingClassId();
+        String getCourseId();
+        String getCourseName();
+        String getCourseNature();
+        String getTeacherEmployeeId();
+        String getTeachingClassComposition();
+        Integer getTeachingClassSize();
+        Integer getSchedulePriority();
+        String getCourseWeeklyScheduleHours();
+        Integer getConsecutiveClassSlots();
+        String getDesignatedClassroom();
+        String getDesignatedClassroomType();
+    }
+
+    @Query("SELECT t.teachingClassId AS teachingClassId, t.courseId AS courseId, t.courseName AS courseName, "
+            + "t.courseNature AS courseNature, t.teacherEmployeeId AS teacherEmployeeId, "
+            + "t.teachingClassComposition AS teachingClassComposition, t.teachingClassSize AS teachingClassSize, "
+            + "t.schedulePriority AS schedulePriority, t.courseWeeklyScheduleHours AS courseWeeklyScheduleHours, "
+            + "t.consecutiveClassSlots AS consecutiveClassSlots, t.designatedClassroom AS designatedClassroom, "
+            + "t.designatedClassroomType AS designatedClassroomType "
+            + "FROM Task t ORDER BY t.teachingClassId")
+    List<SolverView> findSolverViews();
 }
\ No newline at end of file
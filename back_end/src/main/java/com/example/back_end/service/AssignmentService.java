@@ -6,6 +6,9 @@ import com.example.back_end.repository.AssignmentRepository;
 import com.example.back_end.util.AnalysisResult;
 import com.example.back_end.util.GeneticAlgorithmScheduler;
 import com.example.back_end.util.ScheduleAnalyzer;
+import com.example.back_end.util.ScheduleRepairResult;
+import com.example.back_end.util.ScheduleRepairer;
+import com.example.back_end.util.ScheduleWriter;
 
 import lombok.AllArgsConstructor;
 
@@ -27,20 +30,17 @@ public class AssignmentService {
     private final TeacherRepository teacherRepository;
     private final ClassroomRepository classroomRepository;
     private final ScheduleAnalyzer scheduleAnalyzer;
-
-    // 生成排课
-    public void generateAssignments() {
-        geneticAlgorithmScheduler.generateSchedule();
-    }
+    private final ScheduleWriter scheduleWriter;
+    private final ScheduleRepairer scheduleRepairer;
 
     // 获取所有排课结果
     public List<Assignment> findAll() {
-        return assignmentRepository.findAll();
+        return assignmentRepository.findPublished();
     }
 
     // 通过ID查找排课
     public Optional<Assignment> findById(String courseId) {
-        return assignmentRepository.findById(courseId);
+        return assignmentRepository.findPublishedByTeachingClassId(courseId);
     }
 
     // 通过教室ID查找排课
@@ -75,14 +75,15 @@ public class AssignmentService {
         return new ArrayList<>();
     }
 
-    // 保存或更新排课
+    // 保存或更新排课，修改后的排课结果作为新版本发布
     public Assignment save(Assignment assignment) {
-        return assignmentRepository.save(assignment);
+        scheduleWriter.publishChange(assignment.getTeachingClassId(), assignment);
+        return assignment;
     }
 
-    // 删除排课
+    // 删除排课，删除后的排课结果作为新版本发布
     public void deleteById(String courseId) {
-        assignmentRepository.deleteById(courseId);
+        scheduleWriter.publishChange(courseId, null);
     }
 
     // 获取所有班级列表
@@ -123,4 +124,9 @@ public class AssignmentService {
     public AnalysisResult analyzeSchedule(){
         return scheduleAnalyzer.analyzeSchedule();
     }
+
+    // 任务或教室修改后增量修复当前发布的排课结果
+    public ScheduleRepairResult repairSchedule() {
+        return scheduleRepairer.repair();
+    }
 }
\ No newline at end of file
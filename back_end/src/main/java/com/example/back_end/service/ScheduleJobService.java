@@ -0,0 +1,181 @@
+package com.example.back_end.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.back_end.dto.ScheduleJobRequestDTO;
+import com.example.back_end.util.CrossoverOperator;
+import com.example.back_end.util.GeneticAlgorithmScheduler;
+import com.example.back_end.util.RoomSelection;
+import com.example.back_end.util.ScheduleJob;
+import com.example.back_end.util.ScheduleJobStatus;
+import com.example.back_end.util.SchedulerConfig;
+import com.example.back_end.util.SelectionStrategy;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+ * 异步排课任务管理
+ * 排课在独立的单线程执行器上依次运行，不占用Web请求线程，也不会有两次排课同时修改排课器的状态。
+ * 等待队列有上限，队列已满时拒绝新的任务。
+ */
+@Service
+public class ScheduleJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleJobService.class);
+
+    // 保留的已结束任务数量，超出后删除最早结束的任务
+    private static final int FINISHED_JOBS_RETAINED = 50;
+
+    private final GeneticAlgorithmScheduler geneticAlgorithmScheduler;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ScheduleJob> jobs = new ConcurrentHashMap<>();
+
+    public ScheduleJobService(GeneticAlgorithmScheduler geneticAlgorithmScheduler,
+            @Value("${scheduler.jobs.queue-capacity:4}") int queueCapacity) {
+        this.geneticAlgorithmScheduler = geneticAlgorithmScheduler;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "schedule-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // 提交排课任务，参数不合法时抛出 IllegalArgumentException，队列已满时抛出 RejectedExecutionException
+    public ScheduleJob submit(ScheduleJobRequestDTO request) {
+        SchedulerConfig config = resolveConfig(request);
+        ScheduleJob job = new ScheduleJob(UUID.randomUUID().toString(), config);
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        evictFinishedJobs();
+        return job;
+    }
+
+    // 在默认参数的副本上应用请求中指定的参数
+    private SchedulerConfig resolveConfig(ScheduleJobRequestDTO request) {
+        SchedulerConfig config = geneticAlgorithmScheduler.getConfig().copy();
+        if (request != null) {
+            if (request.getPopulationSize() != null) {
+                config.setPopulationSize(request.getPopulationSize());
+            }
+            if (request.getMaxGenerations() != null) {
+                config.setMaxGenerations(request.getMaxGenerations());
+            }
+            if (request.getTimeBudgetMillis() != null) {
+                config.setTimeBudgetMillis(request.getTimeBudgetMillis());
+            }
+            if (request.getStallGenerations() != null) {
+                config.setStallGenerations(request.getStallGenerations());
+            }
+            if (request.getTargetFitness() != null) {
+                config.setTargetFitness(request.getTargetFitness());
+            }
+            if (request.getEliteCount() != null) {
+                config.setEliteCount(request.getEliteCount());
+            }
+            if (request.getMutationRate() != null) {
+                config.setMutationRate(request.getMutationRate());
+            }
+            if (request.getCrossoverRate() != null) {
+                config.setCrossoverRate(request.getCrossoverRate());
+            }
+            if (request.getCrossoverOperator() != null) {
+                config.setCrossoverOperator(CrossoverOperator.valueOf(request.getCrossoverOperator()));
+            }
+            if (request.getSelectionStrategy() != null) {
+                config.setSelectionStrategy(SelectionStrategy.valueOf(request.getSelectionStrategy()));
+            }
+            if (request.getTournamentSize() != null) {
+                config.setTournamentSize(request.getTournamentSize());
+            }
+            if (request.getSeed() != null) {
+                config.setSeed(request.getSeed());
+            }
+            if (request.getWorkerThreads() != null) {
+                config.setWorkerThreads(request.getWorkerThreads());
+            }
+            if (request.getIslands() != null) {
+                config.setIslands(request.getIslands());
+            }
+            if (request.getLocalSearchMillis() != null) {
+                config.setLocalSearchMillis(request.getLocalSearchMillis());
+            }
+            if (request.getRoomSelection() != null) {
+                config.setRoomSelection(RoomSelection.valueOf(request.getRoomSelection()));
+            }
+        }
+        config.validate();
+        return config;
+    }
+
+    public Optional<ScheduleJob> findById(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public List<ScheduleJob> findAll() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(ScheduleJob::getSubmittedAt).reversed())
+                .collect(Collectors.toList());
+    }
+
+    // 取消任务，任务不存在或已结束时返回 false
+    public boolean cancel(String jobId) {
+        ScheduleJob job = jobs.get(jobId);
+        return job != null && job.cancel();
+    }
+
+    private void run(ScheduleJob job) {
+        if (!job.markRunning()) {
+            return; // 排队期间已被取消
+        }
+        try {
+            geneticAlgorithmScheduler.generateSchedule(job.getConfig(), job.getProgress());
+            job.markFinished(ScheduleJobStatus.SUCCEEDED, "排课成功");
+        } catch (CancellationException e) {
+            job.markFinished(ScheduleJobStatus.CANCELLED, "排课任务已取消");
+        } catch (Exception e) {
+            log.error("Schedule job {} failed", job.getId(), e);
+            job.markFinished(ScheduleJobStatus.FAILED, "排课失败: " + e.getMessage());
+        }
+    }
+
+    private void evictFinishedJobs() {
+        List<ScheduleJob> finished = jobs.values().stream()
+                .filter(ScheduleJob::isFinished)
+                .sorted(Comparator.comparing(ScheduleJob::getFinishedAt))
+                .collect(Collectors.toList());
+        for (int i = 0; i < finished.size() - FINISHED_JOBS_RETAINED; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(ScheduleJob::cancel);
+        executor.shutdownNow();
+    }
+}
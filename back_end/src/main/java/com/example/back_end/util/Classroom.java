@@ -4,13 +4,31 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import com.example.back_end.repository.ClassroomRepository;
+
 public class Classroom extends com.example.back_end.entity.Classroom {
-    private boolean[] timeSlots; // 布尔值序列，表示教室的时间占用情况
+    // 周掩码序列，下标为一周内的时间段，第 w 位为 1 表示第 w 周该时间段被占用
+    private int[] weekMasks;
 
     // 每天课程时段数量（常量）
     private static final int SLOTS_PER_DAY = 8;
     private static final int DAYS_PER_WEEK = 5;
     private static final int WEEKS_PER_SEMESTER = 20;
+    private static final int SLOTS_PER_WEEK = SLOTS_PER_DAY * DAYS_PER_WEEK;
+    // tryOccupyStarts 无法占用时的返回值
+    public static final long NO_SLOTS = -1L;
+    // 未调用 indexWeekMasks 时空闲连排索引最多记录的周掩码数量
+    private static final int DEFAULT_INDEXED_MASKS = 4;
+
+    /*
+     * 空闲连排索引：对查询过的周掩码（最多 indexedMasks.length 个），记录每个周内时间段在这些周次中是否已被占用
+     * （blockedSlots[k] 的第 i 位为 1 表示时间段 i 与 indexedMasks[k] 冲突），占用与释放时增量更新。
+     * 每天的空闲连排由该位掩码移位后按位与得到，查找第一个可连排的开始时间段只需取最低位。
+     * 索引不淘汰，已满后查询的其他周掩码每次重新计算；解码与修复时按任务中不同周掩码的数量设置容量（见 indexWeekMasks）。
+     */
+    private int[] indexedMasks = new int[DEFAULT_INDEXED_MASKS];
+    private long[] blockedSlots = new long[DEFAULT_INDEXED_MASKS];
+    private int indexedCount;
 
     public Classroom(com.example.back_end.entity.Classroom classroom) {
         setClassroomId(classroom.getClassroomId());
@@ -18,37 +36,73 @@ public class Classroom extends com.example.back_end.entity.Classroom {
         setMaximumClassSeatingCapacity(classroom.getMaximumClassSeatingCapacity());
         setClassroomType(classroom.getClassroomType());
         setTeachingBuilding(classroom.getTeachingBuilding());
-        this.timeSlots = new boolean[SLOTS_PER_DAY * DAYS_PER_WEEK * WEEKS_PER_SEMESTER];
-        Arrays.fill(this.timeSlots, false);
+        this.weekMasks = new int[SLOTS_PER_WEEK];
+    }
+
+    // 由排课所需字段的投影构造
+    public Classroom(ClassroomRepository.SolverView classroom) {
+        setClassroomId(classroom.getClassroomId());
+        setClassroomName(classroom.getClassroomName());
+        setMaximumClassSeatingCapacity(classroom.getMaximumClassSeatingCapacity());
+        setClassroomType(classroom.getClassroomType());
+        setTeachingBuilding(classroom.getTeachingBuilding());
+        this.weekMasks = new int[SLOTS_PER_WEEK];
+    }
+
+    // 任务中不同周掩码的数量
+    public static int distinctWeekMasks(List<Task> tasks) {
+        return (int) tasks.stream().mapToInt(Task::getWeekMask).distinct().count();
+    }
+
+    // 设置空闲连排索引的容量为 count（通常为 distinctWeekMasks），使每个任务的周掩码都能加入索引，已建立的索引清空
+    public void indexWeekMasks(int count) {
+        indexedMasks = new int[count];
+        blockedSlots = new long[count];
+        indexedCount = 0;
+    }
+
+    // 将周次列表转换为周掩码
+    public static int toWeekMask(List<Integer> weeks) {
+        int mask = 0;
+        for (int week : weeks) {
+            if (week < 0 || week >= WEEKS_PER_SEMESTER) {
+                throw new IllegalArgumentException("Invalid week: " + week);
+            }
+            mask |= 1 << week;
+        }
+        return mask;
     }
 
-    // 检查某个时间段是否被占用
+    // 检查某个时间段是否被占用（slot = 周次 * 每周时段数 + 周内时段）
     public boolean isOccupied(int slot) {
         validateSlot(slot);
-        return timeSlots[slot];
+        return (weekMasks[slot % SLOTS_PER_WEEK] & weekBit(slot)) != 0;
     }
 
     // 释放所有时间段
     public void releaseAllSlots() {
-        Arrays.fill(timeSlots, false);
+        Arrays.fill(weekMasks, 0);
+        Arrays.fill(blockedSlots, 0L);
     }
 
     // 占用某个时间段
     public void occupySlot(int slot) {
         validateSlot(slot);
-        if (timeSlots[slot]) {
+        if (isOccupied(slot)) {
             throw new IllegalStateException("Time slot " + slot + " is already occupied.");
         }
-        timeSlots[slot] = true;
+        weekMasks[slot % SLOTS_PER_WEEK] |= weekBit(slot);
+        indexedCount = 0;
     }
 
     // 释放某个时间段
     public void releaseSlot(int slot) {
         validateSlot(slot);
-        if (!timeSlots[slot]) {
+        if (!isOccupied(slot)) {
             throw new IllegalStateException("Time slot " + slot + " is not occupied.");
         }
-        timeSlots[slot] = false;
+        weekMasks[slot % SLOTS_PER_WEEK] &= ~weekBit(slot);
+        indexedCount = 0;
     }
 
     // 检查某个时间段范围是否全部空闲
@@ -59,7 +113,7 @@ public class Classroom extends com.example.back_end.entity.Classroom {
             throw new IllegalArgumentException("Start slot cannot be greater than end slot.");
         }
         for (int i = startSlot; i <= endSlot; i++) {
-            if (timeSlots[i]) {
+            if ((weekMasks[i % SLOTS_PER_WEEK] & weekBit(i)) != 0) {
                 return false;
             }
         }
@@ -72,8 +126,9 @@ public class Classroom extends com.example.back_end.entity.Classroom {
             throw new IllegalStateException("Some slots in the range are already occupied.");
         }
         for (int i = startSlot; i <= endSlot; i++) {
-            timeSlots[i] = true;
+            weekMasks[i % SLOTS_PER_WEEK] |= weekBit(i);
         }
+        indexedCount = 0;
     }
 
     // 释放某个时间段范围
@@ -81,79 +136,186 @@ public class Classroom extends com.example.back_end.entity.Classroom {
         validateSlot(startSlot);
         validateSlot(endSlot);
         for (int i = startSlot; i <= endSlot; i++) {
-            timeSlots[i] = false;
+            weekMasks[i % SLOTS_PER_WEEK] &= ~weekBit(i);
         }
+        indexedCount = 0;
+    }
+
+    // 将占用情况复制到 dest[offset, offset + 每周时段数)，用于解码检查点
+    public void copyOccupancyTo(int[] dest, int offset) {
+        System.arraycopy(weekMasks, 0, dest, offset, SLOTS_PER_WEEK);
+    }
+
+    // 从 src[offset, offset + 每周时段数) 恢复占用情况
+    public void copyOccupancyFrom(int[] src, int offset) {
+        System.arraycopy(src, offset, weekMasks, 0, SLOTS_PER_WEEK);
+        indexedCount = 0; // 索引在下一次查询时重新建立
     }
 
     // 验证时间段是否合法
     private void validateSlot(int slot) {
-        if (slot < 0 || slot >= timeSlots.length) {
+        if (slot < 0 || slot >= SLOTS_PER_WEEK * WEEKS_PER_SEMESTER) {
             throw new IllegalArgumentException("Invalid time slot: " + slot);
         }
     }
 
-    // 检查指定连续周次的某时间段是否可用
-    public boolean isRangeAvailable(List<Integer> weeks, int startSlot, int endSlot) {
-        for (int week : weeks) {
-            for (int i = startSlot; i <= endSlot; i++) {
-                if (timeSlots[week * DAYS_PER_WEEK * SLOTS_PER_DAY + i]) {
-                    return false; // 时间段已被占用
-                }
+    // 时间段所在周次对应的掩码位
+    private static int weekBit(int slot) {
+        return 1 << (slot / SLOTS_PER_WEEK);
+    }
+
+    // 检查指定周次的某时间段是否可用，每个时间段只需一次与运算
+    public boolean isRangeAvailable(int weekMask, int startSlot, int endSlot) {
+        for (int i = startSlot; i <= endSlot; i++) {
+            if ((weekMasks[i] & weekMask) != 0) {
+                return false; // 时间段已被占用
             }
         }
         return true; // 时间段可用
     }
-    // 占用指定连续周次的某时间段
-    public void occupyRange(List<Integer> weeks, int startSlot, int endSlot) {
-        for (int week : weeks) {
-            for (int i = startSlot; i <= endSlot; i++) {
-                timeSlots[week * DAYS_PER_WEEK * SLOTS_PER_DAY + i] = true;
+
+    // 占用指定周次的某时间段
+    public void occupyRange(int weekMask, int startSlot, int endSlot) {
+        for (int i = startSlot; i <= endSlot; i++) {
+            weekMasks[i] |= weekMask;
+        }
+        long range = ((1L << (endSlot - startSlot + 1)) - 1) << startSlot;
+        for (int k = 0; k < indexedCount; k++) {
+            if ((indexedMasks[k] & weekMask) != 0) {
+                blockedSlots[k] |= range;
             }
         }
     }
+
+    // 释放指定周次的某时间段
+    public void releaseRange(int weekMask, int startSlot, int endSlot) {
+        for (int i = startSlot; i <= endSlot; i++) {
+            weekMasks[i] &= ~weekMask;
+        }
+        for (int k = 0; k < indexedCount; k++) {
+            if ((indexedMasks[k] & weekMask) != 0) {
+                for (int i = startSlot; i <= endSlot; i++) {
+                    if ((weekMasks[i] & indexedMasks[k]) == 0) {
+                        blockedSlots[k] &= ~(1L << i);
+                    }
+                }
+            }
+        }
+    }
+
+    // 在 weekMask 的周次中已被占用的周内时间段位掩码，已索引时直接返回，否则计算并尽量加入索引
+    private long blockedSlots(int weekMask) {
+        for (int k = 0; k < indexedCount; k++) {
+            if (indexedMasks[k] == weekMask) {
+                return blockedSlots[k];
+            }
+        }
+        long blocked = 0L;
+        for (int i = 0; i < SLOTS_PER_WEEK; i++) {
+            if ((weekMasks[i] & weekMask) != 0) {
+                blocked |= 1L << i;
+            }
+        }
+        if (indexedCount < indexedMasks.length) {
+            indexedMasks[indexedCount] = weekMask;
+            blockedSlots[indexedCount++] = blocked;
+        }
+        return blocked;
+    }
+
+    /*
+     * 在 weekMask 的周次中可以连续占用 length 节的开始时间段位掩码（不考虑是否跨天）
+     * 第 s 位为 1 当且仅当时间段 s 到 s + length - 1 都空闲，即 s 位于长度不小于 length 的空闲连排的前部
+     */
+    public long freeStarts(int weekMask, int length) {
+        long free = ~blockedSlots(weekMask);
+        long runs = free;
+        for (int k = 1; k < length; k++) {
+            runs &= free >>> k;
+        }
+        return runs;
+    }
+
+    // 检查指定连续周次的某时间段是否可用
+    public boolean isRangeAvailable(List<Integer> weeks, int startSlot, int endSlot) {
+        return isRangeAvailable(toWeekMask(weeks), startSlot, endSlot);
+    }
+
+    // 占用指定连续周次的某时间段
+    public void occupyRange(List<Integer> weeks, int startSlot, int endSlot) {
+        occupyRange(toWeekMask(weeks), startSlot, endSlot);
+    }
+
     // 释放指定连续周次的某时间段
     public void releaseRange(int startWeek, int endWeek, int startSlot, int endSlot) {
-        if (startWeek < 0 || endWeek >= WEEKS_PER_SEMESTER || startSlot < 0 || endSlot >= timeSlots.length) {
+        if (startWeek < 0 || endWeek >= WEEKS_PER_SEMESTER || startSlot < 0 || endSlot >= SLOTS_PER_WEEK) {
             throw new IllegalArgumentException("Invalid week or time slot.");
         }
-        for (int week = startWeek; week <= endWeek; week++) {
-            for (int i = startSlot; i <= endSlot; i++) {
-                timeSlots[week * DAYS_PER_WEEK * SLOTS_PER_DAY + i] = false;
-            }
-        }
+        int weekMask = (int) ((1L << (endWeek + 1)) - (1L << startWeek));
+        releaseRange(weekMask, startSlot, endSlot);
     }
 
-    // 获取教室的布尔值序列
+    // 获取教室的布尔值序列（按 周次 * 每周时段数 + 周内时段 展开）
     public boolean[] getTimeSlots() {
-        return timeSlots.clone(); // 返回副本以保护原始数据
+        boolean[] timeSlots = new boolean[SLOTS_PER_WEEK * WEEKS_PER_SEMESTER];
+        for (int slot = 0; slot < timeSlots.length; slot++) {
+            timeSlots[slot] = (weekMasks[slot % SLOTS_PER_WEEK] & weekBit(slot)) != 0;
+        }
+        return timeSlots;
     }
 
     // 尝试占用若干连续时间段
     public List<Integer> tryOccupySlots(List<Integer> weeks, int length, int num) {
-        List<Integer> timeSlots = new ArrayList<>();
+        return tryOccupySlots(toWeekMask(weeks), length, num);
+    }
 
-        for (int day = 0; day < DAYS_PER_WEEK; day++) {
-            for (int start = day * SLOTS_PER_DAY; start < day * SLOTS_PER_DAY + SLOTS_PER_DAY - length + 1; start++) {
-                int end = start + length - 1;
-                if (isRangeAvailable(weeks, start, end)) {
-                    timeSlots.add(start);
-                    break;// 每天只排一次
-                }
-            }
-            if (timeSlots.size() == num) {
-                break; // 找到足够的时间段
-            }
+    // 尝试在指定周次占用若干连续时间段，每天只排一次，按天的顺序取每天第一个可用的开始时间段
+    public List<Integer> tryOccupySlots(int weekMask, int length, int num) {
+        long starts = tryOccupyStarts(weekMask, length, num);
+        if (starts == NO_SLOTS) {
+            return null; // 无法占用指定长度的时间段
+        }
+        List<Integer> timeSlots = new ArrayList<>();
+        for (long rest = starts; rest != 0; rest &= rest - 1) {
+            timeSlots.add(Long.numberOfTrailingZeros(rest));
         }
+        return timeSlots;
+    }
 
-        if (timeSlots.size() == num) {
-            for (int i = 0; i < timeSlots.size(); i++) {
-                int start = timeSlots.get(i);
-                int end = start + length - 1;
-                occupyRange(weeks, start, end);
+    /*
+     * 与 tryOccupySlots 相同的查找规则，结果以位掩码返回（第 s 位为 1 表示在周内时间段 s 开始），
+     * 无法占用时返回 NO_SLOTS，解码时不再为每个任务分配列表
+     */
+    public long tryOccupyStarts(int weekMask, int length, int num) {
+        return tryOccupyStarts(weekMask, length, num, -1L);
+    }
+
+    /*
+     * 同上，但只考虑 allowedStarts 中为 1 的开始时间段（例如教师与行政班都空闲的时间段，见 ParticipantOccupancy.freeStarts）；
+     * 只占用教室，参与者的占用由调用方记录
+     */
+    public long tryOccupyStarts(int weekMask, int length, int num, long allowedStarts) {
+        long starts = 0L;
+        int found = 0;
+        // 一天中可以开始 length 节连排的时间段
+        long dayStarts = length <= SLOTS_PER_DAY ? (1L << (SLOTS_PER_DAY - length + 1)) - 1 : 0L;
+        long candidates = allowedStarts & freeStarts(weekMask, length);
+
+        for (int day = 0; day < DAYS_PER_WEEK && found < num; day++) {
+            long dayCandidates = candidates & (dayStarts << (day * SLOTS_PER_DAY));
+            if (dayCandidates != 0) {
+                starts |= Long.lowestOneBit(dayCandidates); // 每天只排一次，取当天第一个可用的开始时间段
+                found++;
             }
-            return timeSlots;
         }
 
-        return null; // 无法占用指定长度的时间段
+        if (found != num) {
+            return NO_SLOTS; // 无法占用指定长度的时间段
+        }
+        for (long rest = starts; rest != 0; rest &= rest - 1) {
+            int start = Long.numberOfTrailingZeros(rest);
+            occupyRange(weekMask, start, start + length - 1);
+        }
+        return starts;
     }
 }
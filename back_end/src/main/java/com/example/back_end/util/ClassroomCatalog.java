@@ -0,0 +1,164 @@
+package com.example.back_end.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/*
+ * 教室目录：按 (教室类型, 容量) 索引的有序结构
+ * 每种教室类型一个 容量 -> 教室下标 的有序映射，另有一个不区分类型的映射。
+ * 查找任务的候选教室时用 tailMap 从不小于教学班人数的最小容量开始（对数时间），按容量从小到大访问，
+ * 避免小班占用大教室，导致后面的大班找不到足够大的教室。容量相同的教室按教室列表顺序排列。
+ * 构建后只读，可被多个线程共享。
+ */
+public class ClassroomCatalog {
+
+    private static final int[] NO_ROOMS = new int[0];
+
+    private final List<Classroom> classrooms;
+    private final NavigableMap<Integer, int[]> byCapacity; // 容量 -> 教室下标（不区分类型）
+    private final Map<String, NavigableMap<Integer, int[]>> byType; // 教室类型 -> 容量 -> 教室下标
+    private final Map<String, int[]> byName; // 教室名称 -> 教室下标，用于指定教室的任务
+
+    public ClassroomCatalog(List<Classroom> classrooms) {
+        this.classrooms = classrooms;
+        Map<Integer, List<Integer>> capacities = new TreeMap<>();
+        Map<String, Map<Integer, List<Integer>>> types = new HashMap<>();
+        Map<String, List<Integer>> names = new HashMap<>();
+        for (int r = 0; r < classrooms.size(); r++) {
+            Classroom classroom = classrooms.get(r);
+            Integer capacity = classroom.getMaximumClassSeatingCapacity();
+            if (capacity == null) {
+                continue; // 没有容量的教室不能安排任何任务
+            }
+            capacities.computeIfAbsent(capacity, k -> new ArrayList<>()).add(r);
+            if (classroom.getClassroomType() != null) {
+                types.computeIfAbsent(classroom.getClassroomType(), k -> new TreeMap<>())
+                        .computeIfAbsent(capacity, k -> new ArrayList<>()).add(r);
+            }
+            if (classroom.getClassroomName() != null) {
+                names.computeIfAbsent(classroom.getClassroomName(), k -> new ArrayList<>()).add(r);
+            }
+        }
+        this.byCapacity = toArrays(capacities);
+        this.byType = new HashMap<>();
+        for (Map.Entry<String, Map<Integer, List<Integer>>> entry : types.entrySet()) {
+            byType.put(entry.getKey(), toArrays(entry.getValue()));
+        }
+        this.byName = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : names.entrySet()) {
+            byName.put(entry.getKey(), toIntArray(entry.getValue()));
+        }
+    }
+
+    /*
+     * 任务的合法教室下标（与 Task.isValid 的判断相同），按容量从小到大排列，容量相同时按教室列表顺序
+     */
+    public int[] bestFit(Task task) {
+        int size = task.getTeachingClassSize() == null ? 0 : task.getTeachingClassSize();
+        String designatedType = task.getDesignatedClassroomType();
+        boolean anyType = designatedType == null || designatedType.isEmpty();
+        String designatedRoom = task.getDesignatedClassroom();
+        if (designatedRoom != null && !designatedRoom.isEmpty()) {
+            // 指定教室时候选教室只有同名的教室，逐个检查容量与类型
+            int[] named = byName.getOrDefault(designatedRoom, NO_ROOMS);
+            int[] rooms = new int[named.length];
+            int count = 0;
+            for (int r : named) {
+                Classroom classroom = classrooms.get(r);
+                if (classroom.getMaximumClassSeatingCapacity() >= size
+                        && (anyType || designatedType.equals(classroom.getClassroomType()))) {
+                    rooms[count++] = r;
+                }
+            }
+            rooms = Arrays.copyOf(rooms, count);
+            sortByCapacity(rooms);
+            return rooms;
+        }
+        NavigableMap<Integer, int[]> catalog = anyType ? byCapacity : byType.get(designatedType);
+        if (catalog == null) {
+            return NO_ROOMS;
+        }
+        NavigableMap<Integer, int[]> sufficient = catalog.tailMap(size, true);
+        int count = 0;
+        for (int[] rooms : sufficient.values()) {
+            count += rooms.length;
+        }
+        int[] rooms = new int[count];
+        int offset = 0;
+        for (int[] group : sufficient.values()) {
+            System.arraycopy(group, 0, rooms, offset, group.length);
+            offset += group.length;
+        }
+        return rooms;
+    }
+
+    /*
+     * 在按容量排列的候选教室中，把位于 building 的教室移到同容量教室的前面，其余顺序不变
+     */
+    public void preferBuilding(int[] rooms, String building) {
+        if (building == null) {
+            return;
+        }
+        int[] buffer = new int[rooms.length];
+        int from = 0;
+        while (from < rooms.length) {
+            int capacity = classrooms.get(rooms[from]).getMaximumClassSeatingCapacity();
+            int to = from;
+            while (to < rooms.length && classrooms.get(rooms[to]).getMaximumClassSeatingCapacity() == capacity) {
+                to++;
+            }
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if (building.equals(classrooms.get(rooms[i]).getTeachingBuilding())) {
+                    buffer[count++] = rooms[i];
+                }
+            }
+            for (int i = from; i < to; i++) {
+                if (!building.equals(classrooms.get(rooms[i]).getTeachingBuilding())) {
+                    buffer[count++] = rooms[i];
+                }
+            }
+            System.arraycopy(buffer, 0, rooms, from, to - from);
+            from = to;
+        }
+    }
+
+    public int getCapacity(int room) {
+        return classrooms.get(room).getMaximumClassSeatingCapacity();
+    }
+
+    public String getBuilding(int room) {
+        return classrooms.get(room).getTeachingBuilding();
+    }
+
+    // 按容量稳定排序，容量相同时保持教室列表顺序
+    private void sortByCapacity(int[] rooms) {
+        Integer[] boxed = Arrays.stream(rooms).boxed().toArray(Integer[]::new);
+        Arrays.sort(boxed, (a, b) -> Integer.compare(classrooms.get(a).getMaximumClassSeatingCapacity(),
+                classrooms.get(b).getMaximumClassSeatingCapacity()));
+        for (int i = 0; i < rooms.length; i++) {
+            rooms[i] = boxed[i];
+        }
+    }
+
+    private static NavigableMap<Integer, int[]> toArrays(Map<Integer, List<Integer>> groups) {
+        NavigableMap<Integer, int[]> arrays = new TreeMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : groups.entrySet()) {
+            arrays.put(entry.getKey(), toIntArray(entry.getValue()));
+        }
+        return arrays;
+    }
+
+    private static int[] toIntArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+}
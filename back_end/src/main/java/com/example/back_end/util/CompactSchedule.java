@@ -0,0 +1,31 @@
+package com.example.back_end.util;
+
+/*
+ * 紧凑的排课结果，按任务列表中的位置记录
+ * rooms[i] 为第 i 个任务排入的教室下标（未排入为 -1），
+ * slotStarts[i] 的第 s 位为 1 表示该任务在周内时间段 s 开始上课。
+ */
+public class CompactSchedule {
+
+    private final double fitness;
+    private final int[] rooms;
+    private final long[] slotStarts;
+
+    public CompactSchedule(double fitness, int[] rooms, long[] slotStarts) {
+        this.fitness = fitness;
+        this.rooms = rooms;
+        this.slotStarts = slotStarts;
+    }
+
+    public double getFitness() {
+        return fitness;
+    }
+
+    public int[] getRooms() {
+        return rooms;
+    }
+
+    public long[] getSlotStarts() {
+        return slotStarts;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.back_end.util;
+
+import java.util.Random;
+
+/*
+ * 交叉算子实现
+ * 任务顺序为稠密任务下标的排列，使用每个线程复用的位集与位置表判断任务是否属于子区间，
+ * 每次交叉 O(n) 且除子代数组外不再分配内存。
+ */
+public class CrossoverEngine {
+
+    private final CrossoverOperator operator;
+    private final int taskCount;
+    // 每个线程复用的工作区，使用后恢复为全 0
+    private final ThreadLocal<Workspace> workspaces;
+
+    public CrossoverEngine(CrossoverOperator operator, int taskCount) {
+        this.operator = operator;
+        this.taskCount = taskCount;
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(taskCount));
+    }
+
+    // 由两个父代的任务顺序生成子代的任务顺序，父代数组不会被修改
+    public int[] crossover(int[] parent1Genes, int[] parent2Genes, Random random) {
+        if (parent1Genes.length != taskCount || parent2Genes.length != taskCount) {
+            throw new IllegalArgumentException("Parent size does not match task count: " + taskCount);
+        }
+        Workspace workspace = workspaces.get();
+        switch (operator) {
+            case PARTIALLY_MAPPED:
+                return partiallyMapped(parent1Genes, parent2Genes, random, workspace);
+            case CYCLE:
+                return cycle(parent1Genes, parent2Genes, workspace);
+            default:
+                return order(parent1Genes, parent2Genes, random, workspace);
+        }
+    }
+
+    private int[] order(int[] parent1Genes, int[] parent2Genes, Random random, Workspace workspace) {
+        int size = parent1Genes.length;
+        // 随机选择一个子区间 L
+        int left = random.nextInt(size); // 子区间左边界（包含）
+        int right = random.nextInt(size - left) + left; // 子区间右边界（包含）
+
+        // 标记父代 B 中子区间 L 的任务
+        for (int i = left; i <= right; i++) {
+            workspace.set(parent2Genes[i]);
+        }
+
+        // 构造子代任务顺序
+        int[] childGenes = new int[size];
+        int parent1Index = 0;
+        for (int i = 0; i < size; i++) {
+            if (i >= left && i <= right) {
+                // 子区间 L 的部分从父代 B 中复制
+                childGenes[i] = parent2Genes[i];
+            } else {
+                // 非子区间 L 的部分从父代 A 中复制，跳过子区间 L 中的任务
+                while (workspace.get(parent1Genes[parent1Index])) {
+                    parent1Index++;
+                }
+                childGenes[i] = parent1Genes[parent1Index];
+                parent1Index++;
+            }
+        }
+
+        for (int i = left; i <= right; i++) {
+            workspace.clear(parent2Genes[i]);
+        }
+        return childGenes;
+    }
+
+    private int[] partiallyMapped(int[] parent1Genes, int[] parent2Genes, Random random, Workspace workspace) {
+        int size = parent1Genes.length;
+        int left = random.nextInt(size);
+        int right = random.nextInt(size - left) + left;
+
+        // 记录子区间中每个任务在父代 B 中的位置
+        int[] positions = workspace.positions;
+        for (int i = left; i <= right; i++) {
+            workspace.set(parent2Genes[i]);
+            positions[parent2Genes[i]] = i;
+        }
+
+        int[] childGenes = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (i >= left && i <= right) {
+                childGenes[i] = parent2Genes[i];
+            } else {
+                // 父代 A 的任务已在子区间中时，沿映射 B[j] -> A[j] 找到不在子区间中的任务
+                int gene = parent1Genes[i];
+                while (workspace.get(gene)) {
+                    gene = parent1Genes[positions[gene]];
+                }
+                childGenes[i] = gene;
+            }
+        }
+
+        for (int i = left; i <= right; i++) {
+            workspace.clear(parent2Genes[i]);
+        }
+        return childGenes;
+    }
+
+    private int[] cycle(int[] parent1Genes, int[] parent2Genes, Workspace workspace) {
+        int size = parent1Genes.length;
+        // 每个任务在父代 A 中的位置
+        int[] positions = workspace.positions;
+        for (int i = 0; i < size; i++) {
+            positions[parent1Genes[i]] = i;
+        }
+
+        int[] childGenes = new int[size];
+        // 位集此处按位置标记已填入的位置
+        boolean fromParent1 = true;
+        for (int start = 0; start < size; start++) {
+            if (workspace.get(start)) {
+                continue;
+            }
+            // 沿 i -> A 中 B[i] 的位置 走完一个循环，循环内的位置都继承同一个父代
+            int i = start;
+            do {
+                childGenes[i] = fromParent1 ? parent1Genes[i] : parent2Genes[i];
+                workspace.set(i);
+                i = positions[parent2Genes[i]];
+            } while (i != start);
+            fromParent1 = !fromParent1;
+        }
+
+        for (int i = 0; i < size; i++) {
+            workspace.clear(i);
+        }
+        return childGenes;
+    }
+
+    // 位集与位置表，位集以任务下标为位
+    private static class Workspace {
+        private final long[] bits;
+        private final int[] positions;
+
+        Workspace(int taskCount) {
+            this.bits = new long[(taskCount + 63) >>> 6];
+            this.positions = new int[taskCount];
+        }
+
+        boolean get(int index) {
+            return (bits[index >>> 6] & (1L << index)) != 0;
+        }
+
+        void set(int index) {
+            bits[index >>> 6] |= 1L << index;
+        }
+
+        void clear(int index) {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.back_end.util;
+
+// 交叉算子
+public enum CrossoverOperator {
+    ORDER, // 顺序交叉（OX）：子区间取自父代 B，其余位置按父代 A 的顺序填入剩余任务
+    PARTIALLY_MAPPED, // 部分映射交叉（PMX）：子区间取自父代 B，其余位置取父代 A 的任务，冲突按子区间映射替换
+    CYCLE // 循环交叉（CX）：按位置循环交替从父代 A、B 继承，每个任务都保持在某个父代中的位置
+}
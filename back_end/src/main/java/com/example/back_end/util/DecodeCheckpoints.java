@@ -0,0 +1,39 @@
+package com.example.back_end.util;
+
+/*
+ * 贪心解码的检查点
+ * 每隔 interval 个任务保存一次增量快照：只记录自上一个检查点以来被修改过的教室的占用
+ * （教师与行政班的占用恢复时由前缀重放，不保存快照）。恢复第 c 个检查点时从全部空闲开始依次应用第 1 到 c 个增量。
+ * 子代与父代前缀相同时，从父代最近的检查点恢复占用情况，再按父代的排课结果重放到第一个不同的位置继续解码。
+ * 增量数组在父子代之间共享，创建后不再修改。
+ */
+public class DecodeCheckpoints {
+
+    private final int interval;
+    // snapshots[c] = 从第 c - 1 个检查点到解码第 c * interval 个任务之前被修改的教室占用（见 GreedyDecoder.delta），
+    // snapshots[0] 为空（全部空闲）；其余为空表示该检查点没有快照（例如由缓存的排课结果恢复），
+    // 此时它及之后的增量都不能使用，恢复时从更早的检查点重放
+    private final int[][] snapshots;
+
+    public DecodeCheckpoints(int interval, int taskCount) {
+        this.interval = interval;
+        this.snapshots = new int[taskCount / interval + 1][];
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    // 位置 position 之前（含）最近的检查点编号
+    public int checkpointBefore(int position) {
+        return position / interval;
+    }
+
+    public int[] getSnapshot(int checkpoint) {
+        return snapshots[checkpoint];
+    }
+
+    public void setSnapshot(int checkpoint, int[] snapshot) {
+        snapshots[checkpoint] = snapshot;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.back_end.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 任务 -> 合法教室 的预计算索引
+ * 每次排课开始时根据任务与教室快照构建一次，之后只读，可被多个线程共享。
+ * 贪心解码时只需遍历该任务的候选教室下标，不再对全部教室重复执行 Task.isValid。
+ * 合法教室由 ClassroomCatalog 按容量查找，候选教室的访问顺序由 RoomSelection 决定。
+ */
+public class EligibleClassroomIndex {
+
+    // eligibleRooms[任务下标] = 按教室列表顺序排列的合法教室下标
+    private final int[][] eligibleRooms;
+    // candidateRooms[任务下标] = 按访问顺序排列的合法教室下标，首次适应时与 eligibleRooms 相同
+    private final int[][] candidateRooms;
+
+    public EligibleClassroomIndex(List<Task> tasks, List<Classroom> classrooms) {
+        this(tasks, classrooms, RoomSelection.FIRST_FIT);
+    }
+
+    public EligibleClassroomIndex(List<Task> tasks, List<Classroom> classrooms, RoomSelection roomSelection) {
+        ClassroomCatalog catalog = new ClassroomCatalog(classrooms);
+        this.eligibleRooms = new int[tasks.size()][];
+        this.candidateRooms = new int[tasks.size()][];
+        for (int t = 0; t < tasks.size(); t++) {
+            Task task = tasks.get(t);
+            if (task.getIndex() != t) {
+                throw new IllegalArgumentException("Task index mismatch: " + task.getTeachingClassId());
+            }
+            int[] bestFit = catalog.bestFit(task);
+            eligibleRooms[t] = bestFit.clone();
+            Arrays.sort(eligibleRooms[t]);
+            candidateRooms[t] = roomSelection == RoomSelection.FIRST_FIT ? eligibleRooms[t] : bestFit;
+        }
+        if (roomSelection == RoomSelection.BEST_FIT_SAME_BUILDING) {
+            Map<String, String> buildings = homeBuildings(tasks, catalog);
+            for (int t = 0; t < tasks.size(); t++) {
+                catalog.preferBuilding(candidateRooms[t], buildings.get(ownerOf(tasks.get(t))));
+            }
+        }
+    }
+
+    /*
+     * 每位教师（没有教师时为每个教学班组成）的常用教学楼：
+     * 其全部任务的最小足够容量教室中，出现次数最多的教学楼（相同时取先出现的）
+     */
+    private Map<String, String> homeBuildings(List<Task> tasks, ClassroomCatalog catalog) {
+        Map<String, Map<String, Integer>> votes = new HashMap<>();
+        for (int t = 0; t < tasks.size(); t++) {
+            String owner = ownerOf(tasks.get(t));
+            int[] rooms = candidateRooms[t];
+            if (owner == null || rooms.length == 0) {
+                continue;
+            }
+            Map<String, Integer> ownerVotes = votes.computeIfAbsent(owner, k -> new LinkedHashMap<>());
+            int capacity = catalog.getCapacity(rooms[0]);
+            for (int i = 0; i < rooms.length && catalog.getCapacity(rooms[i]) == capacity; i++) {
+                String building = catalog.getBuilding(rooms[i]);
+                if (building != null) {
+                    ownerVotes.merge(building, 1, Integer::sum);
+                }
+            }
+        }
+        Map<String, String> buildings = new HashMap<>();
+        for (Map.Entry<String, Map<String, Integer>> entry : votes.entrySet()) {
+            String best = null;
+            int bestVotes = 0;
+            for (Map.Entry<String, Integer> vote : entry.getValue().entrySet()) {
+                if (vote.getValue() > bestVotes) {
+                    best = vote.getKey();
+                    bestVotes = vote.getValue();
+                }
+            }
+            buildings.put(entry.getKey(), best);
+        }
+        return buildings;
+    }
+
+    private static String ownerOf(Task task) {
+        String teacher = task.getTeacherEmployeeId();
+        if (teacher != null && !teacher.isBlank()) {
+            return "T:" + teacher.trim();
+        }
+        String composition = task.getTeachingClassComposition();
+        return composition != null && !composition.isBlank() ? "C:" + composition.trim() : null;
+    }
+
+    // 获取任务的合法教室下标，按教室列表顺序（调用方不得修改返回的数组）
+    public int[] getEligibleRooms(Task task) {
+        return eligibleRooms[task.getIndex()];
+    }
+
+    // 获取任务的候选教室下标，按解码时的访问顺序（调用方不得修改返回的数组）
+    public int[] getCandidateRooms(Task task) {
+        return candidateRooms[task.getIndex()];
+    }
+
+    public int size() {
+        return eligibleRooms.length;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.back_end.util;
+
+/*
+ * 适应度的各组成部分，用于报告与调整权重
+ * placed 为排入的任务数；roomStability 为每位教师、每个教学班组成的教室重复率（1 - 不同教室数 / 排入任务数）之和；
+ * satisfiedRequests 为满足的个性化请求数；gaps 为每位教师、每个教学班组成每天第一节课与最后一节课之间的空闲节次数之和。
+ */
+public class FitnessBreakdown {
+
+    private final int placed;
+    private final double roomStability;
+    private final int satisfiedRequests;
+    private final int gaps;
+    private final FitnessWeights weights;
+
+    public FitnessBreakdown(int placed, double roomStability, int satisfiedRequests, int gaps,
+            FitnessWeights weights) {
+        this.placed = placed;
+        this.roomStability = roomStability;
+        this.satisfiedRequests = satisfiedRequests;
+        this.gaps = gaps;
+        this.weights = weights;
+    }
+
+    public int getPlaced() {
+        return placed;
+    }
+
+    public double getRoomStability() {
+        return roomStability;
+    }
+
+    public int getSatisfiedRequests() {
+        return satisfiedRequests;
+    }
+
+    public int getGaps() {
+        return gaps;
+    }
+
+    public FitnessWeights getWeights() {
+        return weights;
+    }
+
+    // 加权后的适应度
+    public double getScore() {
+        return weights.score(placed, roomStability, satisfiedRequests, gaps);
+    }
+
+    @Override
+    public String toString() {
+        return "placed = " + placed + ", roomStability = " + roomStability + ", satisfiedRequests = "
+                + satisfiedRequests + ", gaps = " + gaps + ", score = " + getScore();
+    }
+}
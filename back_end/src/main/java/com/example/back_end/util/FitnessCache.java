@@ -0,0 +1,73 @@
+package com.example.back_end.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 适应度缓存：任务顺序指纹 -> (适应度, 紧凑排课结果)
+ * 容量有限，按最近最少使用淘汰。每次排课创建一个实例，可被多个线程同时访问。
+ */
+public class FitnessCache {
+
+    private final int capacity;
+    private final Map<Long, CompactSchedule> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public FitnessCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CompactSchedule> eldest) {
+                return size() > FitnessCache.this.capacity;
+            }
+        };
+    }
+
+    // 查找缓存，同时统计命中与未命中次数
+    public CompactSchedule get(long fingerprint) {
+        if (capacity <= 0) {
+            misses.incrementAndGet();
+            return null;
+        }
+        CompactSchedule cached;
+        synchronized (entries) {
+            cached = entries.get(fingerprint);
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return cached;
+    }
+
+    public void put(long fingerprint, CompactSchedule schedule) {
+        if (capacity <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(fingerprint, schedule);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.example.back_end.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 基于解码结果数组的多目标适应度计算，各组成部分（见 FitnessBreakdown）按 FitnessWeights 加权求和：
+ * 排入：排入的任务数；
+ * 教室稳定性：每位教师、每个教学班组成使用教室的重复率（1 - 不同教室数 / 排入任务数）之和；
+ * 个性化请求：满足的个性化请求数，由偏好矩阵的位掩码与开始时间段按位与后计数；
+ * 紧凑度：每位教师、每个教学班组成每天第一节课与最后一节课之间的空闲节次数之和（不区分周次），作为扣分。
+ * 教师、教学班组成、教室编号在构建时映射为稠密下标，计算时只使用基本类型的计数数组，不创建对象。
+ * 构建后只读，每个线程使用独立的工作区，可被多个线程同时调用。
+ * 局部搜索每次只移动一个任务，使用 newIncremental 创建的增量状态在 O(1) 时间内更新各组成部分。
+ */
+public class FitnessEvaluator {
+
+    private static final int DAYS = Schedule.slotsOfWeek / Schedule.slotsOfDay;
+
+    private final FitnessWeights weights;
+    private final int[] teacherOf; // 任务下标 -> 教师下标
+    private final int[] classGroupOf; // 任务下标 -> 教学班组成下标
+    private final int[] durationOf; // 任务下标 -> 每次课的连续节次
+    private final int[] roomKeyOf; // 教室下标 -> 教室编号下标
+    private final int teacherCount;
+    private final int classGroupCount;
+    // 任务下标 -> 该任务个性化请求数的位掩码（见 PreferenceMatrix），没有请求时为空数组
+    private final long[][] preferencesOf;
+    private final ThreadLocal<Workspace> workspaces;
+
+    public FitnessEvaluator(List<Task> tasks, List<Classroom> classrooms, PreferenceMatrix preferences) {
+        this(tasks, classrooms, preferences, FitnessWeights.DEFAULT);
+    }
+
+    public FitnessEvaluator(List<Task> tasks, List<Classroom> classrooms, PreferenceMatrix preferences,
+            FitnessWeights weights) {
+        this.weights = weights;
+        int taskCount = tasks.size();
+        Map<String, Integer> teachers = new HashMap<>();
+        Map<String, Integer> classGroups = new HashMap<>();
+        this.teacherOf = new int[taskCount];
+        this.classGroupOf = new int[taskCount];
+        this.durationOf = new int[taskCount];
+        this.preferencesOf = preferences.planesFor(tasks);
+        for (int t = 0; t < taskCount; t++) {
+            Task task = tasks.get(t);
+            teacherOf[t] = teachers.computeIfAbsent(task.getTeacherEmployeeId(), k -> teachers.size());
+            classGroupOf[t] = classGroups.computeIfAbsent(task.getTeachingClassComposition(),
+                    k -> classGroups.size());
+            durationOf[t] = task.getDurationTime();
+        }
+        this.teacherCount = teachers.size();
+        this.classGroupCount = classGroups.size();
+
+        Map<String, Integer> roomKeys = new HashMap<>();
+        this.roomKeyOf = new int[classrooms.size()];
+        for (int r = 0; r < classrooms.size(); r++) {
+            roomKeyOf[r] = roomKeys.computeIfAbsent(classrooms.get(r).getClassroomId(), k -> roomKeys.size());
+        }
+        this.workspaces = ThreadLocal.withInitial(() -> new Workspace(taskCount, teacherCount, classGroupCount));
+    }
+
+    public FitnessWeights getWeights() {
+        return weights;
+    }
+
+    /*
+     * genes[i] 为第 i 个位置的任务下标，rooms[i] 为其教室下标（未排入为 -1），
+     * slotStarts[i] 为其开始时间段位掩码
+     */
+    public double evaluate(int[] genes, int[] rooms, long[] slotStarts) {
+        Workspace workspace = count(genes, rooms, slotStarts);
+        return weights.score(workspace.placed, workspace.roomStability(teacherCount, classGroupCount),
+                workspace.satisfiedRequests, workspace.gaps());
+    }
+
+    // 与 evaluate 相同，但分别返回各组成部分
+    public FitnessBreakdown evaluateComponents(int[] genes, int[] rooms, long[] slotStarts) {
+        Workspace workspace = count(genes, rooms, slotStarts);
+        return new FitnessBreakdown(workspace.placed, workspace.roomStability(teacherCount, classGroupCount),
+                workspace.satisfiedRequests, workspace.gaps(), weights);
+    }
+
+    private Workspace count(int[] genes, int[] rooms, long[] slotStarts) {
+        Workspace workspace = workspaces.get();
+        workspace.reset();
+
+        for (int position = 0; position < genes.length; position++) {
+            if (rooms[position] < 0) {
+                continue;
+            }
+            int task = genes[position];
+            workspace.placed++;
+
+            int roomKey = roomKeyOf[rooms[position]];
+            int teacher = teacherOf[task];
+            workspace.teacherAssignments[teacher]++;
+            if (workspace.addPair(0, teacher, roomKey)) {
+                workspace.teacherRooms[teacher]++;
+            }
+            int classGroup = classGroupOf[task];
+            workspace.classAssignments[classGroup]++;
+            if (workspace.addPair(1, classGroup, roomKey)) {
+                workspace.classRooms[classGroup]++;
+            }
+            for (long starts = slotStarts[position]; starts != 0; starts &= starts - 1) {
+                int start = Long.numberOfTrailingZeros(starts);
+                int day = start / Schedule.slotsOfDay;
+                int periods = lessonPeriods(start, durationOf[task]);
+                workspace.teacherDays[teacher * DAYS + day] |= periods;
+                workspace.classDays[classGroup * DAYS + day] |= periods;
+            }
+            workspace.satisfiedRequests += satisfiedRequests(task, slotStarts[position]);
+        }
+        return workspace;
+    }
+
+    // 以给定的解码结果创建增量状态，之后通过 Incremental.move 修改单个任务的安排
+    public Incremental newIncremental(int[] genes, int[] rooms, long[] slotStarts) {
+        Incremental incremental = new Incremental();
+        for (int position = 0; position < genes.length; position++) {
+            incremental.add(genes[position], rooms[position], slotStarts[position]);
+        }
+        return incremental;
+    }
+
+    // 任务在给定开始时间段下满足的个性化请求数
+    private int satisfiedRequests(int task, long starts) {
+        return PreferenceMatrix.satisfied(preferencesOf[task], starts);
+    }
+
+    // 一次课在当天占用的节次位掩码
+    private static int lessonPeriods(int start, int duration) {
+        return ((1 << duration) - 1) << (start % Schedule.slotsOfDay);
+    }
+
+    // 一天中第一节课与最后一节课之间的空闲节次数
+    private static int gaps(int periods) {
+        if (periods == 0) {
+            return 0;
+        }
+        int span = 32 - Integer.numberOfLeadingZeros(periods) - Integer.numberOfTrailingZeros(periods);
+        return span - Integer.bitCount(periods);
+    }
+
+    // 教师或教学班组成的教室重复率
+    private static double repeatRate(int assignments, int rooms) {
+        return assignments > 0 ? 1.0 - (double) rooms / assignments : 0.0;
+    }
+
+    /*
+     * 适应度的增量状态，只能由一个线程使用
+     * 记录每位教师、每个教学班组成的排入任务数与不同教室数，每个 (教师或教学班组成, 教室编号) 的任务数，
+     * 以及每位教师、每个教学班组成每个周内时间段的课程数；修改一个任务的安排时只更新该任务涉及的计数。
+     * 教室稳定性按增量累加，可能有极小的浮点误差，需要精确值时应调用 evaluate。
+     */
+    public class Incremental {
+        private final int[] teacherAssignments = new int[teacherCount];
+        private final int[] teacherRooms = new int[teacherCount];
+        private final int[] classAssignments = new int[classGroupCount];
+        private final int[] classRooms = new int[classGroupCount];
+        private final PairCounter pairCounts = new PairCounter(teacherOf.length);
+        // 教师或教学班组成下标 * 每周时段数 + 周内时间段 -> 课程数
+        private final int[] teacherSlots = new int[teacherCount * Schedule.slotsOfWeek];
+        private final int[] classSlots = new int[classGroupCount * Schedule.slotsOfWeek];
+        // 教师或教学班组成下标 * 天数 + 星期 -> 有课的节次位掩码
+        private final int[] teacherDays = new int[teacherCount * DAYS];
+        private final int[] classDays = new int[classGroupCount * DAYS];
+        private int placed;
+        private double roomStability;
+        private int satisfiedRequests;
+        private int gaps;
+
+        public double getScore() {
+            return weights.score(placed, roomStability, satisfiedRequests, gaps);
+        }
+
+        public FitnessBreakdown getBreakdown() {
+            return new FitnessBreakdown(placed, roomStability, satisfiedRequests, gaps, weights);
+        }
+
+        // 将任务从 (oldRoom, oldStarts) 移动到 (newRoom, newStarts)，教室下标为 -1 表示未排入，返回适应度的变化量
+        public double move(int task, int oldRoom, long oldStarts, int newRoom, long newStarts) {
+            double before = getScore();
+            remove(task, oldRoom, oldStarts);
+            add(task, newRoom, newStarts);
+            return getScore() - before;
+        }
+
+        private void add(int task, int room, long starts) {
+            if (room < 0) {
+                return;
+            }
+            placed++;
+            satisfiedRequests += satisfiedRequests(task, starts);
+            int roomKey = roomKeyOf[room];
+            int teacher = teacherOf[task];
+            roomStability -= repeatRate(teacherAssignments[teacher], teacherRooms[teacher]);
+            teacherAssignments[teacher]++;
+            if (pairCounts.add(0, teacher, roomKey, 1) == 1) {
+                teacherRooms[teacher]++;
+            }
+            roomStability += repeatRate(teacherAssignments[teacher], teacherRooms[teacher]);
+            int classGroup = classGroupOf[task];
+            roomStability -= repeatRate(classAssignments[classGroup], classRooms[classGroup]);
+            classAssignments[classGroup]++;
+            if (pairCounts.add(1, classGroup, roomKey, 1) == 1) {
+                classRooms[classGroup]++;
+            }
+            roomStability += repeatRate(classAssignments[classGroup], classRooms[classGroup]);
+            updateSlots(teacherSlots, teacherDays, teacher, durationOf[task], starts, 1);
+            updateSlots(classSlots, classDays, classGroup, durationOf[task], starts, 1);
+        }
+
+        private void remove(int task, int room, long starts) {
+            if (room < 0) {
+                return;
+            }
+            placed--;
+            satisfiedRequests -= satisfiedRequests(task, starts);
+            int roomKey = roomKeyOf[room];
+            int teacher = teacherOf[task];
+            roomStability -= repeatRate(teacherAssignments[teacher], teacherRooms[teacher]);
+            teacherAssignments[teacher]--;
+            if (pairCounts.add(0, teacher, roomKey, -1) == 0) {
+                teacherRooms[teacher]--;
+            }
+            roomStability += repeatRate(teacherAssignments[teacher], teacherRooms[teacher]);
+            int classGroup = classGroupOf[task];
+            roomStability -= repeatRate(classAssignments[classGroup], classRooms[classGroup]);
+            classAssignments[classGroup]--;
+            if (pairCounts.add(1, classGroup, roomKey, -1) == 0) {
+                classRooms[classGroup]--;
+            }
+            roomStability += repeatRate(classAssignments[classGroup], classRooms[classGroup]);
+            updateSlots(teacherSlots, teacherDays, teacher, durationOf[task], starts, -1);
+            updateSlots(classSlots, classDays, classGroup, durationOf[task], starts, -1);
+        }
+
+        // 课程数在 0 与非 0 之间变化时更新当天的节次位掩码，并重新计算当天的空闲节次数
+        private void updateSlots(int[] slots, int[] days, int group, int duration, long starts, int delta) {
+            for (long rest = starts; rest != 0; rest &= rest - 1) {
+                int start = Long.numberOfTrailingZeros(rest);
+                int day = group * DAYS + start / Schedule.slotsOfDay;
+                int periods = days[day];
+                gaps -= gaps(periods);
+                for (int slot = start; slot < start + duration; slot++) {
+                    int count = slots[group * Schedule.slotsOfWeek + slot] += delta;
+                    int bit = 1 << (slot % Schedule.slotsOfDay);
+                    periods = count > 0 ? periods | bit : periods & ~bit;
+                }
+                days[day] = periods;
+                gaps += gaps(periods);
+            }
+        }
+    }
+
+    /*
+     * (kind, group, roomKey) -> 任务数 的开放寻址哈希表，计数降为 0 的键保留在表中，装载率超过一半时扩容
+     */
+    private static class PairCounter {
+        private long[] keys;
+        private int[] counts;
+        private int size;
+
+        PairCounter(int taskCount) {
+            int capacity = Integer.highestOneBit(Math.max(4, taskCount * 4 - 1)) << 1;
+            this.keys = new long[capacity];
+            this.counts = new int[capacity];
+        }
+
+        // 计数加上 delta，返回新的计数
+        int add(int kind, int group, int roomKey, int delta) {
+            long key = (((long) group << 32) | ((long) roomKey << 1) | kind) + 1;
+            int slot = find(keys, key);
+            if (keys[slot] == 0L) {
+                if ((size + 1) * 2 > keys.length) {
+                    grow();
+                    slot = find(keys, key);
+                }
+                keys[slot] = key;
+                size++;
+            }
+            counts[slot] += delta;
+            return counts[slot];
+        }
+
+        private static int find(long[] keys, long key) {
+            int mask = keys.length - 1;
+            int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (keys[slot] != 0L && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0L) {
+                    int slot = find(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+    }
+
+    /*
+     * 每个线程的计数数组，每天的节次位掩码，以及记录 (教师或教学班组成, 教室编号) 是否已出现的开放寻址哈希表
+     * 哈希表容量为任务数的 4 倍以上，每次计算后只清除用过的槽位
+     */
+    private static class Workspace {
+        private final int[] teacherAssignments;
+        private final int[] teacherRooms;
+        private final int[] classAssignments;
+        private final int[] classRooms;
+        private final int[] teacherDays;
+        private final int[] classDays;
+        private final long[] pairs;
+        private final int[] usedSlots;
+        private int usedCount;
+        private int placed;
+        private int satisfiedRequests;
+
+        Workspace(int taskCount, int teacherCount, int classGroupCount) {
+            this.teacherAssignments = new int[teacherCount];
+            this.teacherRooms = new int[teacherCount];
+            this.classAssignments = new int[classGroupCount];
+            this.classRooms = new int[classGroupCount];
+            this.teacherDays = new int[teacherCount * DAYS];
+            this.classDays = new int[classGroupCount * DAYS];
+            int capacity = Integer.highestOneBit(Math.max(4, taskCount * 4 - 1)) << 1;
+            this.pairs = new long[capacity];
+            this.usedSlots = new int[taskCount * 2];
+        }
+
+        void reset() {
+            Arrays.fill(teacherAssignments, 0);
+            Arrays.fill(teacherRooms, 0);
+            Arrays.fill(classAssignments, 0);
+            Arrays.fill(classRooms, 0);
+            Arrays.fill(teacherDays, 0);
+            Arrays.fill(classDays, 0);
+            for (int i = 0; i < usedCount; i++) {
+                pairs[usedSlots[i]] = 0L;
+            }
+            usedCount = 0;
+            placed = 0;
+            satisfiedRequests = 0;
+        }
+
+        // 教师重复率越高，加分越多，每位教师最多一分；教学班组成相同
+        double roomStability(int teacherCount, int classGroupCount) {
+            double roomStability = 0.0;
+            for (int teacher = 0; teacher < teacherCount; teacher++) {
+                roomStability += repeatRate(teacherAssignments[teacher], teacherRooms[teacher]);
+            }
+            for (int classGroup = 0; classGroup < classGroupCount; classGroup++) {
+                roomStability += repeatRate(classAssignments[classGroup], classRooms[classGroup]);
+            }
+            return roomStability;
+        }
+
+        int gaps() {
+            int gaps = 0;
+            for (int periods : teacherDays) {
+                gaps += FitnessEvaluator.gaps(periods);
+            }
+            for (int periods : classDays) {
+                gaps += FitnessEvaluator.gaps(periods);
+            }
+            return gaps;
+        }
+
+        // 加入 (kind, group, roomKey)，此前不存在时返回 true
+        boolean addPair(int kind, int group, int roomKey) {
+            // 加 1 保证键不为 0，0 表示空槽位
+            long key = (((long) group << 32) | ((long) roomKey << 1) | kind) + 1;
+            int mask = pairs.length - 1;
+            int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (pairs[slot] != 0L) {
+                if (pairs[slot] == key) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            pairs[slot] = key;
+            usedSlots[usedCount++] = slot;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.back_end.util;
+
+/*
+ * 适应度各组成部分的权重
+ * 适应度 = 排入权重 * 排入任务数 + 教室稳定性权重 * 教室重复率之和 + 个性化请求权重 * 满足的请求数
+ *        - 紧凑度权重 * 空闲节次数
+ * 默认权重与原有的适应度规则相同（不计紧凑度）。
+ */
+public class FitnessWeights {
+
+    public static final FitnessWeights DEFAULT = new FitnessWeights(1.0, 1.0, 0.1, 0.0);
+
+    private final double placement;
+    private final double roomStability;
+    private final double preference;
+    private final double compactness;
+
+    public FitnessWeights(double placement, double roomStability, double preference, double compactness) {
+        this.placement = placement;
+        this.roomStability = roomStability;
+        this.preference = preference;
+        this.compactness = compactness;
+    }
+
+    // 由各组成部分计算加权后的适应度
+    public double score(int placed, double roomStability, int satisfiedRequests, int gaps) {
+        return placement * placed + this.roomStability * roomStability + preference * satisfiedRequests
+                - compactness * gaps;
+    }
+
+    public double getPlacement() {
+        return placement;
+    }
+
+    public double getRoomStability() {
+        return roomStability;
+    }
+
+    public double getPreference() {
+        return preference;
+    }
+
+    public double getCompactness() {
+        return compactness;
+    }
+
+    @Override
+    public String toString() {
+        return "placement = " + placement + ", roomStability = " + roomStability + ", preference = " + preference
+                + ", compactness = " + compactness;
+    }
+}
@@ -1,167 +1,391 @@
 package com.example.back_end.util;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import com.example.back_end.repository.AssignmentRepository;
-import com.example.back_end.repository.ClassroomRepository;
-import com.example.back_end.repository.TaskRepository;
 import lombok.Data;
 
 @Component
 @Data
 public class GeneticAlgorithmScheduler {
 
-    private static final int POPULATION_SIZE = 100; // 种群大小
-    private static final int MAX_GENERATIONS = 10; // 最大迭代次数
-    private static final double MUTATION_RATE = 1.0; // 变异率
-    private static final double CROSSOVER_RATE = 0.8; // 交叉率
-    private static final Random random = new Random();
+    private static final Logger log = LoggerFactory.getLogger(GeneticAlgorithmScheduler.class);
 
-    private final List<Classroom> classrooms;
-    private final List<Task> tasks;
+    private final ProblemSnapshotProvider problemSnapshotProvider;
     private final AssignmentRepository assignmentRepository;
-
-    public GeneticAlgorithmScheduler(ClassroomRepository classroomRepository, TaskRepository taskRepository,
-            AssignmentRepository assignmentRepository) {
-        this.classrooms = classroomRepository.findAll().stream()
-                .map(classroom -> new Classroom(classroom))
-                .collect(Collectors.toList());
-        this.tasks = taskRepository.findAll().stream()
-                .map(task -> new Task(task))
-                .collect(Collectors.toList());
+    private final ScheduleWriter scheduleWriter;
+    private final SchedulerMetrics metrics;
+    // 默认排课参数，由 scheduler.* 配置绑定
+    private final SchedulerConfig config;
+
+    // 当前（或最近一次）排课使用的参数与输入数据
+    private SchedulerConfig runConfig;
+    private ProblemSnapshot problem;
+    // 当前排课使用的贪心解码器，每次排课开始时根据任务与教室快照重新构建
+    private GreedyDecoder decoder;
+    // 当前排课使用的交叉算子
+    private CrossoverEngine crossoverEngine;
+    // 当前（或最近一次）排课的适应度缓存，可从中读取命中统计
+    private FitnessCache fitnessCache;
+    // 当前（或最近一次）排课的指标
+    private SchedulerMetrics.Run runMetrics;
+
+    public GeneticAlgorithmScheduler(ProblemSnapshotProvider problemSnapshotProvider,
+            AssignmentRepository assignmentRepository, ScheduleWriter scheduleWriter, SchedulerMetrics metrics,
+            SchedulerConfig config) {
+        this.problemSnapshotProvider = problemSnapshotProvider;
         this.assignmentRepository = assignmentRepository;
+        this.scheduleWriter = scheduleWriter;
+        this.metrics = metrics;
+        config.validate();
+        this.config = config;
     }
 
     public Schedule generateSchedule() {
+        return generateSchedule(config.copy(), new ScheduleProgress());
+    }
+
+    /*
+     * 按给定参数执行一次排课并保存结果
+     * runConfig 未指定随机种子时随机生成并写回 runConfig，使本次排课可按记录的参数复现；
+     * progress 用于报告进度，其被取消时在当前代结束后抛出 CancellationException，且不保存结果。
+     * 同一时间只允许一次排课，排课器在运行期间持有解码器等状态。
+     */
+    public synchronized Schedule generateSchedule(SchedulerConfig runConfig, ScheduleProgress progress) {
+        runConfig.validate();
+        if (runConfig.getSeed() == null) {
+            runConfig.setSeed(System.nanoTime());
+        }
+        this.runConfig = runConfig;
+        // 运行时间上限从这里开始计算，包括加载输入、初始化种群与局部搜索
+        StoppingCriteria stoppingCriteria = new StoppingCriteria(runConfig);
+        this.runMetrics = metrics.start(progress.getRunId());
+        // 每次排课开始时获取输入数据，任务或教室修改后的排课使用最新数据
+        this.problem = runMetrics.timeSnapshotLoad(problemSnapshotProvider::getSnapshot);
+        List<Task> tasks = problem.getTasks();
+        Random seeder = new Random(runConfig.getSeed());
+        int threads = runConfig.getWorkerThreads() > 0 ? runConfig.getWorkerThreads()
+                : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        log.info("Scheduling with {}, worker threads {}", runConfig, threads);
+        this.decoder = new GreedyDecoder(problem.getClassrooms(), tasks, runConfig.getCheckpointInterval(),
+                problem.getPreferences(), runConfig.fitnessWeights(), runConfig.getRoomSelection());
+        this.fitnessCache = new FitnessCache(runConfig.getFitnessCacheSize());
+        this.crossoverEngine = new CrossoverEngine(runConfig.getCrossoverOperator(), tasks.size());
+        progress.start(runConfig.getMaxGenerations(), tasks.size());
+
+        try {
+            Schedule bestSchedule = runGenerations(seeder, pool, progress, stoppingCriteria);
+            checkCancelled(progress);
+            progress.finish(bestSchedule.getStopReason());
+            log.info("Stopped: {}", bestSchedule.getStopReason().getDescription());
+            log.info("Fitness cache: hits = {}, misses = {}", fitnessCache.getHitCount(), fitnessCache.getMissCount());
+            saveToDatabase(bestSchedule, progress); // 保存到数据库
+            // 返回最优解（即使未达到完全可行）
+            return bestSchedule;
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    // 进化直到满足任一终止条件，返回已有的最优解并记录结束原因
+    private Schedule runGenerations(Random seeder, ForkJoinPool pool, ScheduleProgress progress,
+            StoppingCriteria stoppingCriteria) {
+        if (runConfig.getIslands() > 1) {
+            return runIslands(seeder, pool, progress, stoppingCriteria);
+        }
         // 初始化种群
-        List<TaskList> population = initializePopulation();
-
-        for (int generation = 0; generation < MAX_GENERATIONS; generation++) {
-            population = evolvePopulation(population);
-
-            System.out.println(
-                    "Generation " + generation + ": Best fitness = " + getBestSchedule(population).getFitness());
-            /*
-             * // 检查是否找到可行解
-             * Schedule bestSchedule = getBestSchedule(population);
-             * if (bestSchedule.getFitness() >= 1.0) {
-             * return bestSchedule; // 返回最优解
-             * }
-             */
+        List<TaskList> population = runMetrics.timePopulationInit(() -> initializePopulation(seeder, pool));
+        runMetrics.initialized(population, getBestTaskList(population), fitnessCache);
+
+        StopReason stopReason = null;
+        for (int generation = 0; stopReason == null; generation++) {
+            checkCancelled(progress);
+            long start = System.nanoTime();
+            population = evolvePopulation(population, seeder, pool);
+            TaskList best = getBestTaskList(population);
+            progress.update(generation, best);
+            runMetrics.generations(generation, 1, System.nanoTime() - start, population, best, fitnessCache);
+
+            log.debug("Generation {}: Best fitness = {}", generation, best.getFitness());
+            stopReason = stoppingCriteria.check(generation + 1, best.getFitness());
         }
 
-        Schedule bestSchedule = getBestSchedule(population);
-        saveToDatabase(bestSchedule); // 保存到数据库
-        // 返回最优解（即使未达到完全可行）
-        return bestSchedule;
+        return toResult(getBestTaskList(population), stopReason, seeder, pool, progress, stoppingCriteria);
     }
 
-    // 使用task中的优先级生成初始种群，每个TaskList默认优先级高的在前
-    private List<TaskList> initializePopulation() {
-        Map<Integer, List<Task>> taskMap = tasks.stream()
-                .collect(Collectors.groupingBy(Task::getSchedulePriority));
-        List<TaskList> population = new ArrayList<>();
-
-        for (int i = 0; i < POPULATION_SIZE; i++) {
-            // 遍历taskmap
-            List<Task> taskList = new ArrayList<>();
-            taskMap.forEach((priority, list) -> {
-                Collections.shuffle(list);
-                taskList.addAll(list);
+    // 岛屿模型：每个岛屿有独立的种群和随机数生成器，每 migrationInterval 代同步迁移一次
+    private Schedule runIslands(Random seeder, ForkJoinPool pool, ScheduleProgress progress,
+            StoppingCriteria stoppingCriteria) {
+        int maxGenerations = runConfig.getMaxGenerations();
+        List<Island> islandList = new ArrayList<>();
+        for (int i = 0; i < runConfig.getIslands(); i++) {
+            islandList.add(new Island(new Random(seeder.nextLong())));
+        }
+        // 岛屿之间并行，岛屿内部顺序执行
+        runMetrics.timePopulationInit(() -> {
+            forEachIsland(pool, islandList, island -> island.population = initializePopulation(island.seeder, null));
+            return islandList;
+        });
+        List<TaskList> initial = allIslands(islandList);
+        runMetrics.initialized(initial, getBestTaskList(initial), fitnessCache);
+
+        int generation = 0;
+        StopReason stopReason = null;
+        while (stopReason == null) {
+            checkCancelled(progress);
+            int epoch = Math.min(runConfig.getMigrationInterval(), maxGenerations - generation);
+            long start = System.nanoTime();
+            forEachIsland(pool, islandList, island -> {
+                // 运行时间上限在岛屿内部的每一代都检查，不必等到迁移
+                island.generations = 0;
+                while (island.generations < epoch && !progress.isCancelled() && !stoppingCriteria.isTimeUp()) {
+                    island.population = evolvePopulation(island.population, island.seeder, null);
+                    island.generations++;
+                }
             });
-            population.add(createTaskList(taskList));
+            checkCancelled(progress);
+            // 到达运行时间上限时本次迁移间隔可能没有完成，只计入实际完成的代数（各岛屿中最多的）
+            int completed = islandList.stream().mapToInt(island -> island.generations).max().orElse(0);
+            generation += completed;
+            List<TaskList> population = allIslands(islandList);
+            TaskList best = getBestTaskList(population);
+            if (completed > 0) {
+                progress.update(generation - 1, best);
+                runMetrics.generations(generation - 1, completed, System.nanoTime() - start, population, best,
+                        fitnessCache);
+                log.debug("Generation {}: Best fitness = {}", generation - 1, best.getFitness());
+            }
+            stopReason = stoppingCriteria.check(generation, best.getFitness());
+            if (stopReason == null) {
+                migrate(islandList);
+            }
         }
 
-        return population;
+        return toResult(getBestTaskList(allIslands(islandList)), stopReason, seeder, pool, progress,
+                stoppingCriteria);
     }
 
-    private List<TaskList> evolvePopulation(List<TaskList> population) {
-        List<TaskList> newPopulation = new ArrayList<>();
-
-        newPopulation.add(getBestTaskList(population)); // 保留最优个体
-        for (int i = 1; i < POPULATION_SIZE; i++) {
-            // 选择
-            TaskList parent1 = selectParent(population);
-            TaskList parent2 = selectParent(population);
+    /*
+     * 对最终的最优个体做局部搜索，只为其生成完整的排课方案，并记录结束原因
+     * 设置了运行时间上限时，局部搜索只使用剩余的时间，剩余时间为 0 时不做局部搜索
+     */
+    private Schedule toResult(TaskList best, StopReason stopReason, Random seeder, ForkJoinPool pool,
+            ScheduleProgress progress, StoppingCriteria stoppingCriteria) {
+        long localSearchMillis = Math.min(runConfig.getLocalSearchMillis(), stoppingCriteria.remainingMillis());
+        if (localSearchMillis > 0) {
+            checkCancelled(progress);
+            best = localSearch(best, seeder, pool, progress, localSearchMillis);
+        }
+        FitnessBreakdown breakdown = decoder.fitnessBreakdown(best);
+        progress.evaluated(breakdown);
+        log.info("Fitness components: {}", breakdown);
+        Schedule result = decoder.toSchedule(best);
+        result.setStopReason(stopReason);
+        return result;
+    }
 
-            TaskList offspring = crossover(parent1, parent2);
-            mutate(offspring);
+    // 从遗传算法的最优个体出发做多次独立的局部搜索，重启次数固定，相同种子下结果与线程数无关
+    private TaskList localSearch(TaskList best, Random seeder, ForkJoinPool pool, ScheduleProgress progress,
+            long localSearchMillis) {
+        long[] seeds = nextSeeds(seeder, runConfig.getLocalSearchRestarts());
+        TaskList improved = runMetrics.timeLocalSearch(() -> new LocalSearchOptimizer(decoder).optimize(best, seeds,
+                runConfig.getLocalSearchIterations(), localSearchMillis, pool, progress::isCancelled));
+        progress.improved(improved);
+        runMetrics.best(improved);
+        log.info("Local search: best fitness {} -> {}", best.getFitness(), improved.getFitness());
+        return improved;
+    }
 
-            newPopulation.add(offspring);
+    private void checkCancelled(ScheduleProgress progress) {
+        if (progress.isCancelled()) {
+            throw new CancellationException("排课已取消");
         }
+    }
 
-        return newPopulation;
+    private void forEachIsland(ForkJoinPool pool, List<Island> islandList, Consumer<Island> action) {
+        if (pool == null) {
+            islandList.forEach(action);
+        } else {
+            pool.submit(() -> islandList.parallelStream().forEach(action)).join();
+        }
     }
 
-    private TaskList selectParent(List<TaskList> population) {
-        // 轮盘赌选择法
-        double totalFitness = population.stream().mapToDouble(TaskList::getFitness).sum();
-        double randomValue = random.nextDouble() * totalFitness;
+    // 按拓扑结构将各岛屿的最优个体复制到目标岛屿，替换目标岛屿中最差的个体
+    private void migrate(List<Island> islandList) {
+        int count = islandList.size();
+        List<List<TaskList>> emigrants = new ArrayList<>();
+        for (Island island : islandList) {
+            emigrants.add(island.population.stream()
+                    .sorted(Comparator.comparingDouble(TaskList::getFitness).reversed())
+                    .limit(runConfig.getMigrationSize())
+                    .collect(Collectors.toList()));
+        }
 
-        double cumulativeFitness = 0.0;
-        for (TaskList schedule : population) {
-            cumulativeFitness += schedule.getFitness();
-            if (cumulativeFitness >= randomValue) {
-                return schedule;
+        for (int target = 0; target < count; target++) {
+            List<TaskList> immigrants = new ArrayList<>();
+            if (runConfig.getMigrationTopology() == MigrationTopology.RING) {
+                immigrants.addAll(emigrants.get((target - 1 + count) % count));
+            } else {
+                for (int source = 0; source < count; source++) {
+                    if (source != target) {
+                        immigrants.addAll(emigrants.get(source));
+                    }
+                }
             }
+
+            Island island = islandList.get(target);
+            // 至少保留本岛屿的最优个体
+            int keep = Math.max(1, island.population.size() - immigrants.size());
+            List<TaskList> population = island.population.stream()
+                    .sorted(Comparator.comparingDouble(TaskList::getFitness).reversed())
+                    .limit(keep)
+                    .collect(Collectors.toList());
+            population.addAll(immigrants.subList(0, Math.min(immigrants.size(), island.population.size() - keep)));
+            island.population = population;
         }
+    }
 
-        return population.get(population.size() - 1); // 返回最后一个作为备选
+    private List<TaskList> allIslands(List<Island> islandList) {
+        return islandList.stream().flatMap(island -> island.population.stream()).collect(Collectors.toList());
     }
 
-    private TaskList crossover(TaskList parent1, TaskList parent2) {
-        if (random.nextDouble() > CROSSOVER_RATE) {
-            return createTaskList(parent2); // 不进行交叉，直接返回父代
+    // 岛屿模型中的一个子种群
+    private static class Island {
+        private final Random seeder;
+        private List<TaskList> population;
+        private int generations; // 本次迁移间隔内完成的代数
+
+        Island(Random seeder) {
+            this.seeder = seeder;
         }
+    }
 
-        List<Task> parent1Tasks = parent1.getTasks();
-        List<Task> parent2Tasks = parent2.getTasks();
+    // 使用task中的优先级生成初始种群，每个TaskList默认优先级高的在前
+    private List<TaskList> initializePopulation(Random seeder, ForkJoinPool pool) {
+        List<Task> tasks = problem.getTasks();
+        Map<Integer, List<Task>> taskMap = tasks.stream()
+                .collect(Collectors.groupingBy(Task::getSchedulePriority));
+        // 按分组遍历顺序排列的任务下标，groupEnds[g] 为第 g 组的结束位置（不含）
+        int[] groupedGenes = new int[tasks.size()];
+        int[] groupEnds = new int[taskMap.size()];
+        int position = 0;
+        int group = 0;
+        for (List<Task> list : taskMap.values()) {
+            for (Task task : list) {
+                groupedGenes[position++] = task.getIndex();
+            }
+            groupEnds[group++] = position;
+        }
+        int populationSize = runConfig.getPopulationSize();
+        long[] seeds = nextSeeds(seeder, populationSize);
+
+        return evaluate(pool, populationSize, i -> {
+            Random rng = new Random(seeds[i]);
+            int[] genes = groupedGenes.clone();
+            int groupStart = 0;
+            for (int groupEnd : groupEnds) {
+                shuffle(genes, groupStart, groupEnd, rng);
+                groupStart = groupEnd;
+            }
+            return createTaskList(genes);
+        });
+    }
 
-        int size = parent1Tasks.size();
-        // 随机选择一个子区间 L
-        int left = random.nextInt(size); // 子区间左边界（包含）
-        int right = random.nextInt(size - left) + left; // 子区间右边界（包含）
+    // 打乱 genes[from, to)，与 Collections.shuffle 的交换顺序相同，相同种子得到相同的初始种群
+    private void shuffle(int[] genes, int from, int to, Random random) {
+        for (int i = to - from; i > 1; i--) {
+            int j = from + random.nextInt(i);
+            int gene = genes[from + i - 1];
+            genes[from + i - 1] = genes[j];
+            genes[j] = gene;
+        }
+    }
 
-        // 提取父代 B 中子区间 L 的任务
-        List<Task> subListFromParent2 = parent2Tasks.subList(left, right + 1);
+    private List<TaskList> evolvePopulation(List<TaskList> population, Random seeder, ForkJoinPool pool) {
+        int offspringCount = runConfig.getPopulationSize() - runConfig.getEliteCount();
+        // 每个子代使用独立的随机数生成器，种子在主线程中按顺序生成，保证并行结果可复现
+        long[] seeds = nextSeeds(seeder, offspringCount);
+        // 选择表每代只构建一次
+        ParentSelector selector = new ParentSelector(population, runConfig.getSelectionStrategy(),
+                runConfig.getTournamentSize());
+
+        // 保留最优的若干个体
+        List<TaskList> newPopulation = population.stream()
+                .sorted(Comparator.comparingDouble(TaskList::getFitness).reversed())
+                .limit(runConfig.getEliteCount())
+                .collect(Collectors.toCollection(ArrayList::new));
+        newPopulation.addAll(evaluate(pool, offspringCount, i -> {
+            Random rng = new Random(seeds[i]);
+            // 选择
+            TaskList parent1 = selector.select(rng);
+            TaskList parent2 = selector.select(rng);
 
-        // 构造子代任务列表
-        List<Task> childTasks = new ArrayList<>();
-        int parent1Index = 0;
+            // 交叉与变异只调整任务顺序，最后统一解码一次
+            TaskList offspring = crossover(parent1, parent2, rng);
+            mutate(offspring, rng);
+            return decodeOffspring(offspring, parent1, parent2);
+        }));
 
-        for (int i = 0; i < size; i++) {
-            if (i >= left && i <= right) {
-                // 子区间 L 的部分从父代 B 中复制
-                childTasks.add(parent2Tasks.get(i));
-            } else {
-                // 非子区间 L 的部分从父代 A 中复制，跳过子区间 L 中的任务
-                while (subListFromParent2.contains(parent1Tasks.get(parent1Index))) {
-                    parent1Index++;
-                }
+        return newPopulation;
+    }
 
-                childTasks.add(parent1Tasks.get(parent1Index));
-                parent1Index++;
-            }
+    // 按索引生成 count 个个体，pool 为空时顺序执行，否则在线程池中并行执行，结果保持索引顺序
+    private List<TaskList> evaluate(ForkJoinPool pool, int count, IntFunction<TaskList> factory) {
+        if (pool == null) {
+            return IntStream.range(0, count).mapToObj(factory).collect(Collectors.toList());
+        }
+        return pool.submit(() -> IntStream.range(0, count).parallel().mapToObj(factory)
+                .collect(Collectors.toList())).join();
+    }
+
+    private long[] nextSeeds(Random seeder, int count) {
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; i++) {
+            seeds[i] = seeder.nextLong();
+        }
+        return seeds;
+    }
+
+    // 生成子代的任务顺序（尚未解码）
+    private TaskList crossover(TaskList parent1, TaskList parent2, Random random) {
+        if (random.nextDouble() > runConfig.getCrossoverRate()) {
+            // 不进行交叉，直接复制父代，避免子代变异时修改父代的任务顺序
+            return new TaskList(parent2.getGenes().clone(), parent2.getFingerprint());
         }
-        return createTaskList(childTasks); // 调用交叉方法
+
+        int[] parent1Genes = parent1.getGenes();
+        int[] childGenes = crossoverEngine.crossover(parent1Genes, parent2.getGenes(), random);
+        // 只有与父代 A 不同的位置需要更新指纹
+        long fingerprint = TaskOrderFingerprint.update(parent1.getFingerprint(), parent1Genes, childGenes);
+        return new TaskList(childGenes, fingerprint);
     }
 
-    private void mutate(TaskList taskList) {
-        if (random.nextDouble() > MUTATION_RATE) {
+    private void mutate(TaskList taskList, Random random) {
+        if (random.nextDouble() > runConfig.getMutationRate()) {
             return; // 不进行变异
         }
 
-        // 获取任务列表
-        List<Task> tasks = taskList.getTasks();
-        int size = tasks.size();
+        // 获取任务顺序的长度
+        int size = taskList.size();
 
         // 随机选择一个任务的索引
         int fromIndex = random.nextInt(size);
@@ -174,104 +398,104 @@ public class GeneticAlgorithmScheduler {
             return;
         }
 
-        // 将任务移动到新位置
-        Task task = tasks.remove(fromIndex); // 从原位置移除任务
-        tasks.add(toIndex, task); // 插入到新位置
+        moveTask(taskList, fromIndex, toIndex);
+    }
+
+    // 将 fromIndex 处的任务移动到 toIndex，并增量更新任务顺序指纹（包内可见，供基准测试使用）
+    static void moveTask(TaskList taskList, int fromIndex, int toIndex) {
+        int[] genes = taskList.getGenes();
+
+        // 移动只影响 [low, high] 区间内的位置，先异或掉旧的项，移动后再异或上新的项
+        int low = Math.min(fromIndex, toIndex);
+        int high = Math.max(fromIndex, toIndex);
+        long fingerprint = TaskOrderFingerprint.toggle(taskList.getFingerprint(), genes, low, high);
+
+        // 将任务移动到新位置，中间的任务依次前移或后移一位
+        int gene = genes[fromIndex];
+        if (fromIndex < toIndex) {
+            System.arraycopy(genes, fromIndex + 1, genes, fromIndex, toIndex - fromIndex);
+        } else {
+            System.arraycopy(genes, toIndex, genes, toIndex + 1, fromIndex - toIndex);
+        }
+        genes[toIndex] = gene;
 
-        // 更新任务列表的适应度
-        Schedule schedule = generateScheduleGreedyily(taskList);
-        taskList.setSchedule(schedule);
-        taskList.setFitness(schedule.getFitness());
+        taskList.setFingerprint(TaskOrderFingerprint.toggle(fingerprint, genes, low, high));
     }
 
     private TaskList getBestTaskList(List<TaskList> population) {
         return population.stream().max((s1, s2) -> Double.compare(s1.getFitness(), s2.getFitness())).orElse(null);
     }
 
-    private Schedule getBestSchedule(List<TaskList> population) {
-        return getBestTaskList(population).getSchedule();
-    }
-
-    // TODO:此处可优化效率
-    private TaskList createTaskList(List<Task> tasks) {
-        TaskList taskList = new TaskList(tasks);
-        Schedule schedule = generateScheduleGreedyily(taskList);
-        taskList.setSchedule(schedule); // 使用贪心算法生成初始排课方案
-        taskList.setFitness(schedule.getFitness());
+    private TaskList createTaskList(int[] genes) {
+        TaskList taskList = new TaskList(genes);
+        if (!loadFromCache(taskList)) {
+            decoder.decode(taskList); // 使用贪心算法生成初始排课方案
+            fitnessCache.put(taskList.getFingerprint(), decoder.compact(taskList));
+        }
         return taskList;
     }
 
-    private TaskList createTaskList(TaskList taskList) {
-        TaskList newTaskList = new TaskList(taskList.getTasks());
-        Schedule schedule = generateScheduleGreedyily(newTaskList);
-        newTaskList.setSchedule(schedule);
-        newTaskList.setFitness(schedule.getFitness());
-        return newTaskList;
+    // 子代与父代的公共前缀无需重新解码，从公共前缀更长的父代的检查点处继续
+    private TaskList decodeOffspring(TaskList offspring, TaskList parent1, TaskList parent2) {
+        if (loadFromCache(offspring)) {
+            return offspring;
+        }
+        int[] genes = offspring.getGenes();
+        int prefix1 = commonPrefixLength(genes, parent1.getGenes());
+        int prefix2 = commonPrefixLength(genes, parent2.getGenes());
+        if (prefix1 >= prefix2) {
+            decoder.decode(offspring, parent1, prefix1);
+        } else {
+            decoder.decode(offspring, parent2, prefix2);
+        }
+        fitnessCache.put(offspring.getFingerprint(), decoder.compact(offspring));
+        return offspring;
     }
 
-    // TODO:验证该贪心算法
-    private Schedule generateScheduleGreedyily(TaskList taskList) {
-        // System.out.println("hashcode: " + taskList.hashCode());
-        List<Assignment> assignments = new ArrayList<>();
-
-        // 刷新每个教室的时间占用情况！!!
-        for (Classroom classroom : classrooms) {
-            classroom.releaseAllSlots();
+    // 相同任务顺序的解码结果已在缓存中时直接恢复
+    private boolean loadFromCache(TaskList taskList) {
+        CompactSchedule cached = fitnessCache.get(taskList.getFingerprint());
+        if (cached == null) {
+            return false;
         }
-        // 处理每个排课任务
-        for (Task task : taskList.getTasks()) {
-            List<Classroom> validClassrooms = classrooms.stream().filter(classroom -> task.isValid(classroom))
-                    .collect(Collectors.toList());
+        decoder.expand(taskList, cached);
+        return true;
+    }
 
-            Classroom classroom = null;
-            List<Integer> timeSlots = null;
-            // TODO:一门课一周需要排多次，每次时长不同的情况未考虑
-            // 遍历所有合法的教室
-            for (Classroom room : validClassrooms) {
-                // 需要排的数量
-                int classNum = task.getHoursOfWeek() / task.getDurationTime();
-                timeSlots = room.tryOccupySlots(task.getWeeks(), task.getDurationTime(),
-                        classNum);
-                if (timeSlots != null) {
-                    classroom = room;
-                    break; // 找到一个有效的教室和时间段后，跳出循环
-                }
-            }
-            Assignment assignment = new Assignment(classroom, timeSlots, task);
-            assignments.add(assignment); // 添加到排课列表
+    private int commonPrefixLength(int[] genes, int[] parentGenes) {
+        int size = Math.min(genes.length, parentGenes.length);
+        int prefix = 0;
+        while (prefix < size && genes[prefix] == parentGenes[prefix]) {
+            prefix++;
         }
-
-        Schedule schedule = new Schedule(assignments);
-        return schedule;
+        return prefix;
     }
 
-    // 模拟保存到数据库的方法
-    private void saveToDatabase(Schedule schedule) {
-        // 先删除表中所有数据
-        assignmentRepository.deleteAll();
-        // 保存每个安排到数据库
-        List<Assignment> assignments = schedule.getAssignments();
-        for (Assignment assignment : assignments) {
-            com.example.back_end.entity.Assignment entity = assignment.toEntity();
-
-            try {
-                assignmentRepository.save(entity);
-                System.out.println("Saved entity: " + entity);
-            } catch (Exception e) {
-                System.err.println("Failed to save entity: " + e.getMessage());
-            }
-        }
+    // 保存到数据库并发布为新的排课版本，只写入与当前版本不同的行
+    private void saveToDatabase(Schedule schedule, ScheduleProgress progress) {
+        List<com.example.back_end.entity.Assignment> entities = schedule.getAssignments().stream()
+                .map(Assignment::toEntity)
+                .collect(Collectors.toList());
+        ScheduleWriteResult result = runMetrics.timePersist(() -> scheduleWriter.write(entities));
+        progress.persisted(result);
+        log.info("Saved schedule: {}", result);
     }
 
     /*
      * 时间冲突检测方法
      */
     public List<Assignment> getConflicts() {
+        ProblemSnapshot snapshot = problemSnapshotProvider.getSnapshot();
+        // 在教室的副本上记录占用，快照中的教室保持只读
+        Map<String, Classroom> classrooms = new HashMap<>();
+        for (Classroom classroom : snapshot.getClassrooms()) {
+            classrooms.put(classroom.getClassroomId(), new Classroom(classroom));
+        }
+        ParticipantOccupancy participants = new ParticipantOccupancy(new ParticipantIndex(snapshot.getTasks()));
         List<Assignment> conflicts = new ArrayList<>();
-        List<Assignment> assignments = assignmentRepository.findAll().stream().map(assignment -> {
-            Classroom classroom = classrooms.stream()
-                    .filter(c -> c.getClassroomId().equals(assignment.getClassRoomId()))
-                    .findFirst().orElse(null);
+        List<Assignment> assignments = assignmentRepository.findPublished().stream().map(assignment -> {
+            Classroom classroom = assignment.getClassRoomId() == null ? null
+                    : classrooms.get(assignment.getClassRoomId());
             List<Integer> timeSlots = new ArrayList<>();
             if (assignment.getSlot() != null) {
                 String[] parts = assignment.getSlot().split(",");
@@ -284,28 +508,24 @@ public class GeneticAlgorithmScheduler {
                     timeSlots.add(timeSlot);
                 }
             }
-            Task task = tasks.stream()
-                    .filter(t -> t.getTeachingClassId().equals(assignment.getTeachingClassId()))
-                    .findFirst().orElse(null);
+            Task task = snapshot.findTask(assignment.getTeachingClassId());
             return new Assignment(classroom, timeSlots, task);
-        }).collect(Collectors.toList());
-
-        for (Classroom classroom : classrooms) {
-            classroom.releaseAllSlots();
-        }
+        }).filter(assignment -> assignment.getTask() != null) // 任务已删除的排课结果由修复时移除，不参与冲突检查
+                .collect(Collectors.toList());
 
         for (Assignment assignment : assignments) {
             Classroom classroom = assignment.getClassroom();
             List<Integer> timeSlots = assignment.getTimeSlots();
             Task task = assignment.getTask();
 
-            // 检查时间段是否冲突
+            // 检查时间段是否冲突（教室、教师或行政班）
             if (classroom != null && timeSlots != null) {
-                List<Integer> weeks = task.getWeeks();
+                int weekMask = task.getWeekMask();
                 for (int timeSlot : timeSlots) {
                     int start = timeSlot;
                     int end = start + task.getDurationTime() - 1;
-                    if (!classroom.isRangeAvailable(weeks, start, end)) {
+                    if (!classroom.isRangeAvailable(weekMask, start, end)
+                            || !participants.isRangeAvailable(task, start, end)) {
                         conflicts.add(assignment);
                         break; // 找到冲突后跳出循环
                     }
@@ -315,7 +535,8 @@ public class GeneticAlgorithmScheduler {
                     for (int timeSlot : timeSlots) {
                         int start = timeSlot;
                         int end = start + task.getDurationTime() - 1;
-                        classroom.occupyRange(weeks, start, end);
+                        classroom.occupyRange(weekMask, start, end);
+                        participants.occupyRange(task, start, end);
                     }
                 }
             }
@@ -0,0 +1,298 @@
+package com.example.back_end.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+ * 贪心解码器：按任务顺序依次为每个任务选择第一个可用的教室和时间段，教室按 RoomSelection 的顺序尝试
+ * 时间段须同时满足教室空闲，以及任务的教师和教学班组成中的每个行政班都空闲。
+ * 每次排课创建一个实例，教室列表、合法教室索引与参与者索引只读共享，
+ * 教室与参与者的占用情况使用每个线程独立的副本，因此可以被多个线程同时调用。
+ * 解码结果只写入 TaskList 的基本类型数组，完整的排课方案由 toSchedule 按需生成。
+ */
+public class GreedyDecoder {
+
+    private final List<Classroom> classrooms;
+    private final List<Task> tasks; // 按任务下标排列
+    private final EligibleClassroomIndex eligibleClassroomIndex;
+    private final ParticipantIndex participantIndex;
+    private final FitnessEvaluator fitnessEvaluator;
+    private final int checkpointInterval; // 检查点间隔（任务数）
+
+    // 每个工作线程独立的教室占用副本，解码时互不干扰
+    private final ThreadLocal<List<Classroom>> workerClassrooms = ThreadLocal.withInitial(this::copyClassrooms);
+    private final ThreadLocal<ParticipantOccupancy> workerParticipants;
+    // 每个工作线程自上一个检查点以来修改过的教室，检查点只保存这些教室的占用
+    private final ThreadLocal<DirtyRooms> workerDirtyRooms;
+
+    public GreedyDecoder(List<Classroom> classrooms, List<Task> tasks, int checkpointInterval) {
+        this(classrooms, tasks, checkpointInterval, PreferenceMatrix.EMPTY, FitnessWeights.DEFAULT,
+                RoomSelection.FIRST_FIT);
+    }
+
+    public GreedyDecoder(List<Classroom> classrooms, List<Task> tasks, int checkpointInterval,
+            PreferenceMatrix preferences, FitnessWeights fitnessWeights, RoomSelection roomSelection) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        this.classrooms = classrooms;
+        this.tasks = tasks;
+        this.eligibleClassroomIndex = new EligibleClassroomIndex(tasks, classrooms, roomSelection);
+        this.participantIndex = new ParticipantIndex(tasks);
+        this.workerParticipants = ThreadLocal.withInitial(() -> new ParticipantOccupancy(participantIndex));
+        this.workerDirtyRooms = ThreadLocal.withInitial(() -> new DirtyRooms(classrooms.size()));
+        this.fitnessEvaluator = new FitnessEvaluator(tasks, classrooms, preferences, fitnessWeights);
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    // 从头解码整个任务顺序
+    public void decode(TaskList taskList) {
+        decode(taskList, null, 0);
+    }
+
+    /*
+     * 解码任务顺序，结果写入 taskList 的 rooms、slotStarts、fitness 和 checkpoints
+     * parent 不为空时，taskList 的前 commonPrefix 个任务与 parent 相同，
+     * 这部分的排课结果直接复用，从 parent 最近的检查点恢复占用后继续解码。
+     */
+    // TODO:验证该贪心算法
+    public void decode(TaskList taskList, TaskList parent, int commonPrefix) {
+        int[] genes = taskList.getGenes();
+        int size = genes.length;
+        if (parent != null && commonPrefix >= size && parent.size() == size) {
+            // 与父代完全相同，无需解码
+            taskList.setRooms(parent.getRooms());
+            taskList.setSlotStarts(parent.getSlotStarts());
+            taskList.setFitness(parent.getFitness());
+            taskList.setCheckpoints(parent.getCheckpoints());
+            return;
+        }
+
+        int[] placedRooms = new int[size];
+        long[] slotStarts = new long[size];
+        DecodeCheckpoints checkpoints = new DecodeCheckpoints(checkpointInterval, size);
+        // 使用当前线程的教室副本记录占用情况，classrooms 本身不被修改
+        List<Classroom> rooms = workerClassrooms.get();
+        ParticipantOccupancy participants = workerParticipants.get();
+        DirtyRooms dirtyRooms = workerDirtyRooms.get();
+        dirtyRooms.clear();
+
+        int resumeFrom = 0;
+        if (parent != null && commonPrefix > 0) {
+            resumeFrom = restore(rooms, participants, dirtyRooms, parent, commonPrefix, placedRooms, slotStarts,
+                    checkpoints);
+        } else {
+            // 刷新每个教室的时间占用情况！!!
+            for (Classroom room : rooms) {
+                room.releaseAllSlots();
+            }
+            participants.releaseAll();
+        }
+
+        // 处理每个排课任务
+        for (int position = resumeFrom; position < size; position++) {
+            // 恢复时已经共享或记录的检查点不再覆盖
+            if (position > 0 && position % checkpointInterval == 0
+                    && checkpoints.getSnapshot(position / checkpointInterval) == null) {
+                checkpoints.setSnapshot(position / checkpointInterval, delta(rooms, dirtyRooms));
+            }
+            Task task = tasks.get(genes[position]);
+            int placedRoom = -1;
+            long starts = 0L;
+            // 需要排的数量
+            int classNum = task.getHoursOfWeek() / task.getDurationTime();
+            // TODO:一门课一周需要排多次，每次时长不同的情况未考虑
+            // 教师与各行政班的占用对所有候选教室相同，只合并一次
+            long freeStarts = participants.freeStarts(task);
+            // 按候选顺序遍历所有合法的教室
+            for (int roomIndex : eligibleClassroomIndex.getCandidateRooms(task)) {
+                starts = rooms.get(roomIndex).tryOccupyStarts(task.getWeekMask(), task.getDurationTime(), classNum,
+                        freeStarts);
+                if (starts != Classroom.NO_SLOTS) {
+                    placedRoom = roomIndex;
+                    participants.occupy(task, starts);
+                    dirtyRooms.add(roomIndex);
+                    break; // 找到一个有效的教室和时间段后，跳出循环
+                }
+            }
+            placedRooms[position] = placedRoom;
+            slotStarts[position] = placedRoom >= 0 ? starts : 0L;
+        }
+
+        taskList.setRooms(placedRooms);
+        taskList.setSlotStarts(slotStarts);
+        taskList.setFitness(fitnessEvaluator.evaluate(genes, placedRooms, slotStarts));
+        taskList.setCheckpoints(checkpoints);
+    }
+
+    /*
+     * 恢复到解码 parent 第 commonPrefix 个任务之前的状态，返回继续解码的位置
+     * 从全部空闲开始依次应用 parent 的增量快照，直到公共前缀内最后一个之前的增量都存在的检查点，并共享这些增量；
+     * 之后的前缀按 parent 的排课结果重放，重放经过的检查点为子代记录新的增量。
+     */
+    private int restore(List<Classroom> rooms, ParticipantOccupancy participants, DirtyRooms dirtyRooms,
+            TaskList parent, int commonPrefix, int[] placedRooms, long[] slotStarts, DecodeCheckpoints checkpoints) {
+        DecodeCheckpoints parentCheckpoints = parent.getCheckpoints();
+        int[] parentRooms = parent.getRooms();
+        long[] parentStarts = parent.getSlotStarts();
+
+        for (Classroom room : rooms) {
+            room.releaseAllSlots();
+        }
+        int lastCheckpoint = parentCheckpoints.checkpointBefore(commonPrefix);
+        int checkpoint = 0;
+        while (checkpoint < lastCheckpoint && parentCheckpoints.getSnapshot(checkpoint + 1) != null) {
+            checkpoint++;
+            int[] delta = parentCheckpoints.getSnapshot(checkpoint);
+            applyDelta(rooms, delta);
+            checkpoints.setSnapshot(checkpoint, delta);
+        }
+        // 参与者的占用不保存快照，按公共前缀的排课结果全部重放，代价远小于复制全部参与者的占用
+        participants.releaseAll();
+
+        // 复用公共前缀的排课结果，并重放检查点之后的教室占用与全部前缀的参与者占用
+        System.arraycopy(parentRooms, 0, placedRooms, 0, commonPrefix);
+        System.arraycopy(parentStarts, 0, slotStarts, 0, commonPrefix);
+        int[] genes = parent.getGenes();
+        int replayFrom = checkpoint * checkpointInterval;
+        for (int position = 0; position < commonPrefix; position++) {
+            if (position > replayFrom && position % checkpointInterval == 0) {
+                checkpoints.setSnapshot(position / checkpointInterval, delta(rooms, dirtyRooms));
+            }
+            int placedRoom = parentRooms[position];
+            if (placedRoom >= 0) {
+                Task task = tasks.get(genes[position]);
+                participants.occupy(task, parentStarts[position]);
+                if (position < replayFrom) {
+                    continue;
+                }
+                for (long starts = parentStarts[position]; starts != 0; starts &= starts - 1) {
+                    int start = Long.numberOfTrailingZeros(starts);
+                    rooms.get(placedRoom).occupyRange(task.getWeekMask(), start, start + task.getDurationTime() - 1);
+                }
+                dirtyRooms.add(placedRoom);
+            }
+        }
+        return commonPrefix;
+    }
+
+    // 将解码结果压缩为按位置记录的教室下标与开始时间段，解码结果创建后不再修改，可直接共享
+    public CompactSchedule compact(TaskList taskList) {
+        return new CompactSchedule(taskList.getFitness(), taskList.getRooms(), taskList.getSlotStarts());
+    }
+
+    // 由紧凑排课结果恢复 taskList 的解码结果，不需要重新搜索教室和时间段
+    public void expand(TaskList taskList, CompactSchedule compactSchedule) {
+        taskList.setRooms(compactSchedule.getRooms());
+        taskList.setSlotStarts(compactSchedule.getSlotStarts());
+        taskList.setFitness(compactSchedule.getFitness());
+        taskList.setCheckpoints(new DecodeCheckpoints(checkpointInterval, taskList.size()));
+    }
+
+    // 生成完整的排课方案，用于保存最终结果或展示
+    public Schedule toSchedule(TaskList taskList) {
+        int[] genes = taskList.getGenes();
+        int[] placedRooms = taskList.getRooms();
+        long[] slotStarts = taskList.getSlotStarts();
+        List<Assignment> assignments = new ArrayList<>(genes.length);
+        for (int position = 0; position < genes.length; position++) {
+            Classroom classroom = null;
+            List<Integer> timeSlots = null;
+            if (placedRooms[position] >= 0) {
+                classroom = classrooms.get(placedRooms[position]); // 排课结果引用共享的教室对象
+                timeSlots = new ArrayList<>();
+                for (long starts = slotStarts[position]; starts != 0; starts &= starts - 1) {
+                    timeSlots.add(Long.numberOfTrailingZeros(starts));
+                }
+            }
+            assignments.add(new Assignment(classroom, timeSlots, tasks.get(genes[position])));
+        }
+        return new Schedule(assignments, taskList.getFitness());
+    }
+
+    // 分别计算解码结果的适应度各组成部分，用于报告
+    public FitnessBreakdown fitnessBreakdown(TaskList taskList) {
+        return fitnessEvaluator.evaluateComponents(taskList.getGenes(), taskList.getRooms(), taskList.getSlotStarts());
+    }
+
+    public List<Classroom> getClassrooms() {
+        return classrooms;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public EligibleClassroomIndex getEligibleClassroomIndex() {
+        return eligibleClassroomIndex;
+    }
+
+    public ParticipantIndex getParticipantIndex() {
+        return participantIndex;
+    }
+
+    public FitnessEvaluator getFitnessEvaluator() {
+        return fitnessEvaluator;
+    }
+
+    /*
+     * 自上一个检查点以来修改过的教室的占用，依次为每个教室的下标与其每周时段数个周掩码，记录后清空修改标记
+     * 一个检查点间隔内最多修改 checkpointInterval 个教室，快照大小与教室总数无关
+     */
+    private int[] delta(List<Classroom> rooms, DirtyRooms dirtyRooms) {
+        int stride = Schedule.slotsOfWeek + 1;
+        int[] delta = new int[dirtyRooms.count * stride];
+        for (int k = 0; k < dirtyRooms.count; k++) {
+            int room = dirtyRooms.rooms[k];
+            delta[k * stride] = room;
+            rooms.get(room).copyOccupancyTo(delta, k * stride + 1);
+        }
+        dirtyRooms.clear();
+        return delta;
+    }
+
+    private static void applyDelta(List<Classroom> rooms, int[] delta) {
+        int stride = Schedule.slotsOfWeek + 1;
+        for (int offset = 0; offset < delta.length; offset += stride) {
+            rooms.get(delta[offset]).copyOccupancyFrom(delta, offset + 1);
+        }
+    }
+
+    // 修改过的教室下标集合，按加入顺序记录，每个教室只记录一次
+    private static class DirtyRooms {
+        private final boolean[] marked;
+        private final int[] rooms;
+        private int count;
+
+        DirtyRooms(int roomCount) {
+            this.marked = new boolean[roomCount];
+            this.rooms = new int[roomCount];
+        }
+
+        void add(int room) {
+            if (!marked[room]) {
+                marked[room] = true;
+                rooms[count++] = room;
+            }
+        }
+
+        void clear() {
+            for (int k = 0; k < count; k++) {
+                marked[rooms[k]] = false;
+            }
+            count = 0;
+        }
+    }
+
+    private List<Classroom> copyClassrooms() {
+        List<Classroom> copies = classrooms.stream()
+                .map(classroom -> new Classroom(classroom))
+                .collect(Collectors.toList());
+        int weekMasks = Classroom.distinctWeekMasks(tasks);
+        for (Classroom copy : copies) {
+            copy.indexWeekMasks(weekMasks);
+        }
+        return copies;
+    }
+}
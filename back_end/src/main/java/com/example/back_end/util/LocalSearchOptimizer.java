@@ -0,0 +1,454 @@
+package com.example.back_end.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * 遗传算法结束后对最优个体做局部搜索（模拟退火 + 禁忌）
+ * 遗传算法只调整任务顺序，由贪心解码决定教室和时间段；局部搜索直接修改已排入任务的安排，移动类型为：
+ * 换教室（同一时间段移到另一个合法教室）、交换教室（与目标教室中的一个任务互换教室）、
+ * 平移（把一次课移到另一天或同一天的其他节次）、Kempe 链交换（把一个教室两天的全部课程整体互换）。
+ * 教室、教师与行政班的占用用周掩码网格记录，改变时间段的移动同时检查教师与行政班是否空闲；适应度由 FitnessEvaluator.Incremental 增量计算，每次移动的代价与教室数、任务数无关。
+ * 多次重启使用各自的随机种子独立搜索，可并行执行；只受迭代次数限制时结果与线程数无关。
+ */
+public class LocalSearchOptimizer {
+
+    /*
+     * 默认权重下的退火温度，按搜索进度从初始温度几何下降到最终温度，
+     * 适应度下降 0.1（默认权重下一个个性化请求）的移动在开始时约有 13% 的概率被接受。
+     * 局部搜索不改变排入任务数，移动的适应度变化只来自教室稳定性、个性化请求与紧凑度，
+     * 实际温度按这三项权重之和相对默认权重的比例缩放，权重整体放大或缩小时接受概率不变。
+     */
+    private static final double INITIAL_TEMPERATURE = 0.05;
+    private static final double FINAL_TEMPERATURE = 0.0005;
+    // 移动过的任务在此后若干次迭代内不再移动，除非移动后得到新的最优解
+    private static final int TABU_TENURE = 32;
+    // 每隔多少次迭代检查一次运行时间和取消标记
+    private static final int CHECK_INTERVAL = 256;
+    private static final double EPSILON = 1e-9;
+
+    private final GreedyDecoder decoder;
+    private final List<Task> tasks;
+    private final EligibleClassroomIndex eligibleClassroomIndex;
+    private final ParticipantIndex participantIndex;
+    private final FitnessEvaluator fitnessEvaluator;
+    private final int roomCount;
+    private final double initialTemperature;
+    private final double finalTemperature;
+
+    public LocalSearchOptimizer(GreedyDecoder decoder) {
+        this.decoder = decoder;
+        this.tasks = decoder.getTasks();
+        this.eligibleClassroomIndex = decoder.getEligibleClassroomIndex();
+        this.participantIndex = decoder.getParticipantIndex();
+        this.fitnessEvaluator = decoder.getFitnessEvaluator();
+        this.roomCount = decoder.getClassrooms().size();
+        double scale = temperatureScale(fitnessEvaluator.getWeights());
+        this.initialTemperature = INITIAL_TEMPERATURE * scale;
+        this.finalTemperature = FINAL_TEMPERATURE * scale;
+    }
+
+    // 温度相对默认权重的缩放比例；三项权重都为 0 时移动不改变适应度，按默认温度处理
+    static double temperatureScale(FitnessWeights weights) {
+        double moveWeight = moveWeight(weights);
+        return moveWeight > 0 ? moveWeight / moveWeight(FitnessWeights.DEFAULT) : 1.0;
+    }
+
+    private static double moveWeight(FitnessWeights weights) {
+        return weights.getRoomStability() + weights.getPreference() + weights.getCompactness();
+    }
+
+    /*
+     * 从 start 出发，用每个种子各做一次独立的局部搜索，返回适应度最高的结果（不低于 start）
+     * 每次搜索最多 maxIterations 次迭代（0 表示不限制）且不超过 timeBudgetMillis 毫秒；
+     * cancelled 返回 true 时尽快结束并返回已找到的最优结果。
+     */
+    public TaskList optimize(TaskList start, long[] seeds, int maxIterations, long timeBudgetMillis,
+            ForkJoinPool pool, BooleanSupplier cancelled) {
+        long deadline = System.currentTimeMillis() + timeBudgetMillis;
+        List<TaskList> results;
+        if (pool == null) {
+            results = Arrays.stream(seeds)
+                    .mapToObj(seed -> new Search(start, seed).run(maxIterations, deadline, timeBudgetMillis, cancelled))
+                    .collect(Collectors.toList());
+        } else {
+            results = pool.submit(() -> IntStream.range(0, seeds.length).parallel()
+                    .mapToObj(i -> new Search(start, seeds[i]).run(maxIterations, deadline, timeBudgetMillis,
+                            cancelled))
+                    .collect(Collectors.toList())).join();
+        }
+        TaskList best = start;
+        for (TaskList result : results) {
+            if (result.getFitness() > best.getFitness()) {
+                best = result;
+            }
+        }
+        return best;
+    }
+
+    /*
+     * 一次独立的搜索，按位置记录每个任务的教室下标与开始时间段位掩码（与 TaskList 相同）
+     */
+    private class Search {
+        private final int[] genes;
+        private final long fingerprint;
+        private final int[] rooms;
+        private final long[] starts;
+        private final int[] grid = new int[roomCount * Schedule.slotsOfWeek]; // 教室下标 * 每周时段数 + 周内时段 -> 周掩码
+        private final int[][] roomMembers = new int[roomCount][]; // 教室下标 -> 排在该教室的位置
+        private final int[] roomSizes = new int[roomCount];
+        private final ParticipantOccupancy participants = new ParticipantOccupancy(participantIndex);
+        private final int[] placed; // 已排入任务的位置，只移动这些任务
+        private final long[] tabuUntil;
+        private final FitnessEvaluator.Incremental fitness;
+        private final Random random;
+        private double bestScore;
+        private int[] bestRooms;
+        private long[] bestStarts;
+        private long iteration;
+        private double temperature = initialTemperature;
+
+        Search(TaskList start, long seed) {
+            this.genes = start.getGenes();
+            this.fingerprint = start.getFingerprint();
+            this.rooms = start.getRooms().clone();
+            this.starts = start.getSlotStarts().clone();
+            this.tabuUntil = new long[genes.length];
+            this.random = new Random(seed);
+            Arrays.fill(roomMembers, new int[0]);
+            int count = 0;
+            for (int position = 0; position < genes.length; position++) {
+                if (rooms[position] >= 0) {
+                    occupy(position, rooms[position], starts[position]);
+                    participants.occupy(tasks.get(genes[position]), starts[position]);
+                    addMember(rooms[position], position);
+                    count++;
+                }
+            }
+            this.placed = new int[count];
+            count = 0;
+            for (int position = 0; position < genes.length; position++) {
+                if (rooms[position] >= 0) {
+                    placed[count++] = position;
+                }
+            }
+            this.fitness = fitnessEvaluator.newIncremental(genes, rooms, starts);
+            this.bestScore = fitness.getScore();
+            this.bestRooms = rooms.clone();
+            this.bestStarts = starts.clone();
+        }
+
+        TaskList run(int maxIterations, long deadline, long timeBudgetMillis, BooleanSupplier cancelled) {
+            long startTime = System.currentTimeMillis();
+            while (placed.length > 0 && (maxIterations == 0 || iteration < maxIterations)) {
+                if (iteration % CHECK_INTERVAL == 0) {
+                    long now = System.currentTimeMillis();
+                    if (now >= deadline || cancelled.getAsBoolean()) {
+                        break;
+                    }
+                    double progress = maxIterations > 0 ? (double) iteration / maxIterations
+                            : (double) (now - startTime) / timeBudgetMillis;
+                    temperature = initialTemperature * Math.pow(finalTemperature / initialTemperature, progress);
+                }
+                iteration++;
+                int position = placed[random.nextInt(placed.length)];
+                double move = random.nextDouble();
+                if (move < 0.3) {
+                    relocate(position);
+                } else if (move < 0.5) {
+                    swapRooms(position);
+                } else if (move < 0.8) {
+                    shift(position);
+                } else {
+                    kempeSwap(position);
+                }
+            }
+
+            TaskList result = new TaskList(genes, fingerprint);
+            double exact = fitnessEvaluator.evaluate(genes, bestRooms, bestStarts);
+            decoder.expand(result, new CompactSchedule(exact, bestRooms, bestStarts));
+            return result;
+        }
+
+        // 换教室：保持开始时间段不变，移到另一个合法教室
+        private void relocate(int position) {
+            Task task = tasks.get(genes[position]);
+            int[] eligibleRooms = eligibleClassroomIndex.getEligibleRooms(task);
+            int from = rooms[position];
+            int to = eligibleRooms[random.nextInt(eligibleRooms.length)];
+            if (to == from || !fits(to, task, starts[position])) {
+                return;
+            }
+            double delta = fitness.move(genes[position], from, starts[position], to, starts[position]);
+            if (!accept(delta, position)) {
+                fitness.move(genes[position], to, starts[position], from, starts[position]);
+                return;
+            }
+            release(position, from, starts[position]);
+            occupy(position, to, starts[position]);
+            removeMember(from, position);
+            addMember(to, position);
+            rooms[position] = to;
+            moved(position);
+        }
+
+        // 交换教室：与另一个合法教室中的一个任务互换教室，双方的开始时间段不变
+        private void swapRooms(int position) {
+            Task task = tasks.get(genes[position]);
+            int[] eligibleRooms = eligibleClassroomIndex.getEligibleRooms(task);
+            int from = rooms[position];
+            int to = eligibleRooms[random.nextInt(eligibleRooms.length)];
+            if (to == from || roomSizes[to] == 0) {
+                return;
+            }
+            int other = roomMembers[to][random.nextInt(roomSizes[to])];
+            Task otherTask = tasks.get(genes[other]);
+            if (Arrays.binarySearch(eligibleClassroomIndex.getEligibleRooms(otherTask), from) < 0) {
+                return;
+            }
+            release(position, from, starts[position]);
+            release(other, to, starts[other]);
+            if (!fits(to, task, starts[position]) || !fits(from, otherTask, starts[other])) {
+                occupy(position, from, starts[position]);
+                occupy(other, to, starts[other]);
+                return;
+            }
+            double delta = fitness.move(genes[position], from, starts[position], to, starts[position])
+                    + fitness.move(genes[other], to, starts[other], from, starts[other]);
+            if (!accept(delta, position)) {
+                fitness.move(genes[other], from, starts[other], to, starts[other]);
+                fitness.move(genes[position], to, starts[position], from, starts[position]);
+                occupy(position, from, starts[position]);
+                occupy(other, to, starts[other]);
+                return;
+            }
+            occupy(position, to, starts[position]);
+            occupy(other, from, starts[other]);
+            removeMember(from, position);
+            removeMember(to, other);
+            addMember(to, position);
+            addMember(from, other);
+            rooms[position] = to;
+            rooms[other] = from;
+            moved(position);
+            moved(other);
+        }
+
+        // 平移：把一次课移到同一教室另一天或同一天的其他节次，每天仍最多一次课，教师与行政班须空闲
+        private void shift(int position) {
+            Task task = tasks.get(genes[position]);
+            int length = task.getDurationTime();
+            int room = rooms[position];
+            long oldStarts = starts[position];
+            int lesson = nthBit(oldStarts, random.nextInt(Long.bitCount(oldStarts)));
+            int day = random.nextInt(Schedule.slotsOfWeek / Schedule.slotsOfDay);
+            int target = day * Schedule.slotsOfDay + random.nextInt(Schedule.slotsOfDay - length + 1);
+            long rest = oldStarts & ~(1L << lesson);
+            if (target == lesson || (rest & dayMask(day)) != 0) {
+                return;
+            }
+            long newStarts = rest | (1L << target);
+            releaseLesson(room, task, lesson);
+            participants.releaseRange(task, lesson, lesson + length - 1);
+            if (!lessonFits(room, task, target) || !participants.isRangeAvailable(task, target, target + length - 1)) {
+                occupyLesson(room, task, lesson);
+                participants.occupyRange(task, lesson, lesson + length - 1);
+                return;
+            }
+            double delta = fitness.move(genes[position], room, oldStarts, room, newStarts);
+            if (!accept(delta, position)) {
+                fitness.move(genes[position], room, newStarts, room, oldStarts);
+                occupyLesson(room, task, lesson);
+                participants.occupyRange(task, lesson, lesson + length - 1);
+                return;
+            }
+            occupyLesson(room, task, target);
+            participants.occupyRange(task, target, target + length - 1);
+            starts[position] = newStarts;
+            moved(position);
+        }
+
+        /*
+         * Kempe 链交换：在任务所在教室中选取它上课的一天和另一天，两天的全部课程整体互换
+         * 每个任务只在一个教室上课，因此该教室这两天的课程构成完整的链，互换后教室占用和每天一次课的规则都不会被破坏；
+         * 教师或行政班在其他教室的课程可能与互换后的时间冲突，此时放弃本次交换
+         */
+        private void kempeSwap(int position) {
+            int room = rooms[position];
+            int days = Schedule.slotsOfWeek / Schedule.slotsOfDay;
+            int day1 = nthBit(starts[position], random.nextInt(Long.bitCount(starts[position]))) / Schedule.slotsOfDay;
+            int day2 = (day1 + 1 + random.nextInt(days - 1)) % days;
+            int[] members = roomMembers[room];
+            int size = roomSizes[room];
+            if (!swapParticipants(members, size, day1, day2)) {
+                return;
+            }
+            double delta = 0.0;
+            for (int i = 0; i < size; i++) {
+                int member = members[i];
+                long swapped = swapDays(starts[member], day1, day2);
+                if (swapped != starts[member]) {
+                    delta += fitness.move(genes[member], room, starts[member], room, swapped);
+                }
+            }
+            if (!accept(delta, position)) {
+                for (int i = 0; i < size; i++) {
+                    int member = members[i];
+                    long swapped = swapDays(starts[member], day1, day2);
+                    if (swapped != starts[member]) {
+                        fitness.move(genes[member], room, swapped, room, starts[member]);
+                    }
+                }
+                restoreParticipants(members, size, size, day1, day2);
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                starts[members[i]] = swapDays(starts[members[i]], day1, day2);
+            }
+            int offset1 = room * Schedule.slotsOfWeek + day1 * Schedule.slotsOfDay;
+            int offset2 = room * Schedule.slotsOfWeek + day2 * Schedule.slotsOfDay;
+            for (int i = 0; i < Schedule.slotsOfDay; i++) {
+                int mask = grid[offset1 + i];
+                grid[offset1 + i] = grid[offset2 + i];
+                grid[offset2 + i] = mask;
+            }
+            moved(position);
+        }
+
+        // 把教室中每个任务在参与者网格中的占用改为两天互换后的时间，有冲突时恢复原来的占用并返回 false
+        private boolean swapParticipants(int[] members, int size, int day1, int day2) {
+            for (int i = 0; i < size; i++) {
+                participants.release(tasks.get(genes[members[i]]), starts[members[i]]);
+            }
+            for (int i = 0; i < size; i++) {
+                Task task = tasks.get(genes[members[i]]);
+                long swapped = swapDays(starts[members[i]], day1, day2);
+                if (!participants.isAvailable(task, swapped)) {
+                    restoreParticipants(members, size, i, day1, day2);
+                    return false;
+                }
+                participants.occupy(task, swapped);
+            }
+            return true;
+        }
+
+        // 撤销 swapParticipants：前 swappedCount 个任务已按互换后的时间占用，其余任务的占用已释放
+        private void restoreParticipants(int[] members, int size, int swappedCount, int day1, int day2) {
+            for (int i = 0; i < swappedCount; i++) {
+                participants.release(tasks.get(genes[members[i]]), swapDays(starts[members[i]], day1, day2));
+            }
+            for (int i = 0; i < size; i++) {
+                participants.occupy(tasks.get(genes[members[i]]), starts[members[i]]);
+            }
+        }
+
+        // 模拟退火接受准则；禁忌中的任务只有在得到新的最优解时才允许移动
+        private boolean accept(double delta, int position) {
+            double score = fitness.getScore();
+            if (tabuUntil[position] > iteration && score <= bestScore + EPSILON) {
+                return false;
+            }
+            return delta >= 0 || random.nextDouble() < Math.exp(delta / temperature);
+        }
+
+        private void moved(int position) {
+            tabuUntil[position] = iteration + TABU_TENURE;
+            if (fitness.getScore() > bestScore + EPSILON) {
+                bestScore = fitness.getScore();
+                System.arraycopy(rooms, 0, bestRooms, 0, rooms.length);
+                System.arraycopy(starts, 0, bestStarts, 0, starts.length);
+            }
+        }
+
+        private boolean fits(int room, Task task, long lessonStarts) {
+            for (long rest = lessonStarts; rest != 0; rest &= rest - 1) {
+                if (!lessonFits(room, task, Long.numberOfTrailingZeros(rest))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean lessonFits(int room, Task task, int start) {
+            int offset = room * Schedule.slotsOfWeek + start;
+            for (int i = 0; i < task.getDurationTime(); i++) {
+                if ((grid[offset + i] & task.getWeekMask()) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void occupy(int position, int room, long lessonStarts) {
+            Task task = tasks.get(genes[position]);
+            for (long rest = lessonStarts; rest != 0; rest &= rest - 1) {
+                occupyLesson(room, task, Long.numberOfTrailingZeros(rest));
+            }
+        }
+
+        private void release(int position, int room, long lessonStarts) {
+            Task task = tasks.get(genes[position]);
+            for (long rest = lessonStarts; rest != 0; rest &= rest - 1) {
+                releaseLesson(room, task, Long.numberOfTrailingZeros(rest));
+            }
+        }
+
+        private void occupyLesson(int room, Task task, int start) {
+            int offset = room * Schedule.slotsOfWeek + start;
+            for (int i = 0; i < task.getDurationTime(); i++) {
+                grid[offset + i] |= task.getWeekMask();
+            }
+        }
+
+        private void releaseLesson(int room, Task task, int start) {
+            int offset = room * Schedule.slotsOfWeek + start;
+            for (int i = 0; i < task.getDurationTime(); i++) {
+                grid[offset + i] &= ~task.getWeekMask();
+            }
+        }
+
+        private void addMember(int room, int position) {
+            if (roomSizes[room] == roomMembers[room].length) {
+                roomMembers[room] = Arrays.copyOf(roomMembers[room], Math.max(4, roomSizes[room] * 2));
+            }
+            roomMembers[room][roomSizes[room]++] = position;
+        }
+
+        private void removeMember(int room, int position) {
+            int[] members = roomMembers[room];
+            for (int i = 0; i < roomSizes[room]; i++) {
+                if (members[i] == position) {
+                    members[i] = members[--roomSizes[room]];
+                    return;
+                }
+            }
+        }
+    }
+
+    // 第 n 个（从 0 开始）为 1 的位的下标
+    private static int nthBit(long bits, int n) {
+        for (int i = 0; i < n; i++) {
+            bits &= bits - 1;
+        }
+        return Long.numberOfTrailingZeros(bits);
+    }
+
+    private static long dayMask(int day) {
+        return ((1L << Schedule.slotsOfDay) - 1) << (day * Schedule.slotsOfDay);
+    }
+
+    // 互换两天的开始时间段
+    private static long swapDays(long lessonStarts, int day1, int day2) {
+        long bits1 = lessonStarts & dayMask(day1);
+        long bits2 = lessonStarts & dayMask(day2);
+        int shift = (day2 - day1) * Schedule.slotsOfDay;
+        long rest = lessonStarts & ~dayMask(day1) & ~dayMask(day2);
+        return shift > 0 ? rest | (bits1 << shift) | (bits2 >>> shift)
+                : rest | (bits1 >>> -shift) | (bits2 << -shift);
+    }
+}
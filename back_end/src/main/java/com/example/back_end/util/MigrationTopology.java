@@ -0,0 +1,9 @@
+package com.example.back_end.util;
+
+// 岛屿模型中个体迁移的拓扑结构
+public enum MigrationTopology {
+    // 环形：第 i 个岛屿的优秀个体迁移到第 i+1 个岛屿
+    RING,
+    // 全连接：每个岛屿的优秀个体迁移到其他所有岛屿
+    FULLY_CONNECTED
+}
@@ -0,0 +1,96 @@
+package com.example.back_end.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/*
+ * 父代选择器
+ * 每一代根据种群构建一次：轮盘赌与排序选择预先计算累计权重表，每次选择二分查找，O(log n)；
+ * 轮盘赌以适应度为权重，种群中有负的适应度时整体平移到最低适应度为 0；
+ * 锦标赛选择每次随机抽取 tournamentSize 个个体。构建后只读，可被多个线程共享。
+ */
+public class ParentSelector {
+
+    private final List<TaskList> population;
+    private final SelectionStrategy strategy;
+    private final int tournamentSize;
+    // 累计权重表，cumulativeWeights[i] 为前 i + 1 个候选的权重之和
+    private final double[] cumulativeWeights;
+    // 累计权重表中第 i 个候选在种群中的下标
+    private final int[] candidates;
+
+    public ParentSelector(List<TaskList> population, SelectionStrategy strategy, int tournamentSize) {
+        this.population = population;
+        this.strategy = strategy;
+        this.tournamentSize = tournamentSize;
+        int size = population.size();
+        if (strategy == SelectionStrategy.ROULETTE) {
+            this.candidates = IntStream.range(0, size).toArray();
+            this.cumulativeWeights = new double[size];
+            // 计入紧凑度惩罚后适应度可能为负，此时所有权重减去最低适应度，累计权重表保持单调不减
+            double offset = 0.0;
+            for (TaskList taskList : population) {
+                offset = Math.min(offset, taskList.getFitness());
+            }
+            double sum = 0.0;
+            for (int i = 0; i < size; i++) {
+                sum += population.get(i).getFitness() - offset;
+                cumulativeWeights[i] = sum;
+            }
+        } else if (strategy == SelectionStrategy.RANK) {
+            // 按适应度从低到高排序，第 i 名的权重为 i + 1
+            this.candidates = IntStream.range(0, size).boxed()
+                    .sorted(Comparator.comparingDouble(i -> population.get(i).getFitness()))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            this.cumulativeWeights = new double[size];
+            for (int i = 0; i < size; i++) {
+                cumulativeWeights[i] = (double) (i + 1) * (i + 2) / 2;
+            }
+        } else {
+            this.candidates = null;
+            this.cumulativeWeights = null;
+        }
+    }
+
+    public TaskList select(Random random) {
+        if (strategy == SelectionStrategy.TOURNAMENT) {
+            return selectByTournament(random);
+        }
+        double total = cumulativeWeights[cumulativeWeights.length - 1];
+        if (total <= 0) {
+            // 所有权重都为 0（例如适应度全部相同且经过平移），等概率选择
+            return population.get(candidates[random.nextInt(candidates.length)]);
+        }
+        double randomValue = random.nextDouble() * total;
+        return population.get(candidates[firstAtLeast(randomValue)]);
+    }
+
+    // 第一个累计权重不小于 value 的位置，与逐个累加查找的结果一致
+    int firstAtLeast(double value) {
+        int index = Arrays.binarySearch(cumulativeWeights, value);
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            // 权重为 0 的个体会产生相等的累计值，取最前面的一个
+            while (index > 0 && cumulativeWeights[index - 1] == value) {
+                index--;
+            }
+        }
+        return Math.min(index, cumulativeWeights.length - 1); // 浮点误差时返回最后一个作为备选
+    }
+
+    private TaskList selectByTournament(Random random) {
+        TaskList best = null;
+        for (int i = 0; i < tournamentSize; i++) {
+            TaskList candidate = population.get(random.nextInt(population.size()));
+            if (best == null || candidate.getFitness() > best.getFitness()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.back_end.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 任务 -> 参与者（教师与教学班组成中的每个行政班）的预计算索引
+ * 教师按工号、行政班按教学班组成中以逗号分隔的班级名称映射为稠密下标，每次排课开始时构建一次，之后只读，可被多个线程共享。
+ * 同一参与者在同一周次的同一时间段只能上一门课，占用情况记录在 ParticipantOccupancy 中。
+ */
+public class ParticipantIndex {
+
+    private static final int[] NO_PARTICIPANTS = new int[0];
+
+    // participants[任务下标] = 教师下标（若有）与各行政班下标，教师下标在前，行政班下标加上教师数
+    private final int[][] participants;
+    private final int teacherCount;
+    private final int participantCount;
+
+    public ParticipantIndex(List<Task> tasks) {
+        Map<String, Integer> teachers = new HashMap<>();
+        Map<String, Integer> classes = new HashMap<>();
+        int[] teacherOf = new int[tasks.size()];
+        int[][] classesOf = new int[tasks.size()][];
+        for (int t = 0; t < tasks.size(); t++) {
+            Task task = tasks.get(t);
+            if (task.getIndex() != t) {
+                throw new IllegalArgumentException("Task index mismatch: " + task.getTeachingClassId());
+            }
+            String teacher = task.getTeacherEmployeeId();
+            teacherOf[t] = teacher == null || teacher.isBlank() ? -1
+                    : teachers.computeIfAbsent(teacher.trim(), k -> teachers.size());
+            classesOf[t] = memberClasses(task.getTeachingClassComposition(), classes);
+        }
+        this.teacherCount = teachers.size();
+        this.participantCount = teachers.size() + classes.size();
+        this.participants = new int[tasks.size()][];
+        for (int t = 0; t < tasks.size(); t++) {
+            int offset = teacherOf[t] >= 0 ? 1 : 0;
+            int[] ids = new int[offset + classesOf[t].length];
+            if (offset > 0) {
+                ids[0] = teacherOf[t];
+            }
+            for (int c = 0; c < classesOf[t].length; c++) {
+                ids[offset + c] = teacherCount + classesOf[t][c];
+            }
+            participants[t] = ids.length > 0 ? ids : NO_PARTICIPANTS;
+        }
+    }
+
+    // 教学班组成中的行政班下标，按逗号（全角或半角）分隔，重复的班级只记一次
+    private static int[] memberClasses(String composition, Map<String, Integer> classes) {
+        if (composition == null || composition.isBlank()) {
+            return NO_PARTICIPANTS;
+        }
+        String[] names = composition.split("[,，]");
+        int[] ids = new int[names.length];
+        int count = 0;
+        for (String name : names) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int id = classes.computeIfAbsent(trimmed, k -> classes.size());
+            boolean duplicate = false;
+            for (int i = 0; i < count; i++) {
+                duplicate |= ids[i] == id;
+            }
+            if (!duplicate) {
+                ids[count++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    // 获取任务的参与者下标（调用方不得修改返回的数组）
+    public int[] getParticipants(Task task) {
+        return participants[task.getIndex()];
+    }
+
+    public int getTeacherCount() {
+        return teacherCount;
+    }
+
+    public int getParticipantCount() {
+        return participantCount;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.back_end.util;
+
+import java.util.Arrays;
+
+/*
+ * 教师与行政班的占用情况
+ * 与教室相同，每个参与者每个周内时间段一个周掩码，第 w 位为 1 表示第 w 周该时间段已有课。
+ * 只能由一个线程使用；解码时先用 freeStarts 把任务全部参与者的占用合并为参与者都空闲的开始时间段位掩码，
+ * 各候选教室只检查这些开始时间段，检查参与者的代价与候选教室数无关，且不分配对象。
+ */
+public class ParticipantOccupancy {
+
+    private static final int SLOTS = Schedule.slotsOfWeek;
+
+    private final ParticipantIndex index;
+    private final int[] weekMasks; // 参与者下标 * 每周时段数 + 周内时段 -> 周掩码
+    private final long[] usedSlots; // 参与者下标 -> 有课的周内时间段位掩码，freeStarts 只检查这些时间段
+
+    public ParticipantOccupancy(ParticipantIndex index) {
+        this.index = index;
+        this.weekMasks = new int[index.getParticipantCount() * SLOTS];
+        this.usedSlots = new long[index.getParticipantCount()];
+    }
+
+    /*
+     * 任务的全部参与者都空闲的开始时间段位掩码：第 s 位为 1 表示从 s 开始的 durationTime 个时间段中，
+     * 没有参与者在任务的任一周次有课（不考虑是否跨天，由 Classroom.tryOccupyStarts 限制）
+     */
+    public long freeStarts(Task task) {
+        int weekMask = task.getWeekMask();
+        long conflicts = 0L; // 第 i 位为 1 表示时间段 i 有参与者冲突
+        for (int participant : index.getParticipants(task)) {
+            int offset = participant * SLOTS;
+            for (long rest = usedSlots[participant] & ~conflicts; rest != 0; rest &= rest - 1) {
+                int i = Long.numberOfTrailingZeros(rest);
+                if ((weekMasks[offset + i] & weekMask) != 0) {
+                    conflicts |= 1L << i;
+                }
+            }
+        }
+        long blocked = conflicts;
+        for (int k = 1; k < task.getDurationTime(); k++) {
+            blocked |= conflicts >>> k;
+        }
+        return ~blocked;
+    }
+
+    // 检查任务的全部参与者在 [startSlot, endSlot] 是否都空闲
+    public boolean isRangeAvailable(Task task, int startSlot, int endSlot) {
+        int weekMask = task.getWeekMask();
+        for (int participant : index.getParticipants(task)) {
+            int offset = participant * SLOTS;
+            for (int i = startSlot; i <= endSlot; i++) {
+                if ((weekMasks[offset + i] & weekMask) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // 检查任务在 starts（开始时间段位掩码）的每次课上参与者是否都空闲
+    public boolean isAvailable(Task task, long starts) {
+        for (long rest = starts; rest != 0; rest &= rest - 1) {
+            int start = Long.numberOfTrailingZeros(rest);
+            if (!isRangeAvailable(task, start, start + task.getDurationTime() - 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void occupyRange(Task task, int startSlot, int endSlot) {
+        int weekMask = task.getWeekMask();
+        for (int participant : index.getParticipants(task)) {
+            int offset = participant * SLOTS;
+            for (int i = startSlot; i <= endSlot; i++) {
+                weekMasks[offset + i] |= weekMask;
+            }
+            usedSlots[participant] |= ((1L << (endSlot - startSlot + 1)) - 1) << startSlot;
+        }
+    }
+
+    public void releaseRange(Task task, int startSlot, int endSlot) {
+        int weekMask = task.getWeekMask();
+        for (int participant : index.getParticipants(task)) {
+            int offset = participant * SLOTS;
+            for (int i = startSlot; i <= endSlot; i++) {
+                weekMasks[offset + i] &= ~weekMask;
+                if (weekMasks[offset + i] == 0) {
+                    usedSlots[participant] &= ~(1L << i);
+                }
+            }
+        }
+    }
+
+    // 占用任务在 starts 的每次课
+    public void occupy(Task task, long starts) {
+        for (long rest = starts; rest != 0; rest &= rest - 1) {
+            int start = Long.numberOfTrailingZeros(rest);
+            occupyRange(task, start, start + task.getDurationTime() - 1);
+        }
+    }
+
+    // 释放任务在 starts 的每次课
+    public void release(Task task, long starts) {
+        for (long rest = starts; rest != 0; rest &= rest - 1) {
+            int start = Long.numberOfTrailingZeros(rest);
+            releaseRange(task, start, start + task.getDurationTime() - 1);
+        }
+    }
+
+    public void releaseAll() {
+        Arrays.fill(weekMasks, 0);
+        Arrays.fill(usedSlots, 0L);
+    }
+}
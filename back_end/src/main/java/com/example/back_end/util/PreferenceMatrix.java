@@ -0,0 +1,132 @@
+package com.example.back_end.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.back_end.entity.PersonalizedRequest;
+import com.example.back_end.repository.PersonalizedRequestRepository;
+
+/*
+ * 个性化请求的偏好矩阵
+ * 每个教学班的全部请求（不区分请求的用户）汇总为一周 40 个开始时间段上的请求数，
+ * 时间段 s 上的请求数为偏好 (星期, 时段) 包含 s 的请求个数，即该时间段开课时满足的请求数。
+ * 请求数按二进制位拆分为若干个位掩码（第 k 个掩码记录请求数第 k 位为 1 的时间段），
+ * 满足的请求数 = sum(bitCount(开始时间段 & 第 k 个掩码) << k)，与请求数量无关。
+ * 无法识别星期或时段的请求永远不会被满足，不进入矩阵。创建后只读，可被多个线程共享。
+ */
+public class PreferenceMatrix {
+
+    public static final PreferenceMatrix EMPTY = new PreferenceMatrix(Collections.emptyMap(), 0);
+
+    private static final long[] NO_PREFERENCES = new long[0];
+    private static final int DAYS = Schedule.slotsOfWeek / Schedule.slotsOfDay;
+    // 一天中上午（第 1-4 节）与下午（第 5-8 节）开始的时间段
+    private static final long MORNING_STARTS = 0b00001111L;
+    private static final long AFTERNOON_STARTS = 0b11110000L;
+
+    private final Map<String, long[]> planesByTeachingClassId; // 教学班ID -> 请求数的各二进制位掩码
+    private final long requestCount; // 进入矩阵的请求总数
+
+    private PreferenceMatrix(Map<String, long[]> planesByTeachingClassId, long requestCount) {
+        this.planesByTeachingClassId = planesByTeachingClassId;
+        this.requestCount = requestCount;
+    }
+
+    // 由逐条的个性化请求构建
+    public static PreferenceMatrix of(List<? extends PersonalizedRequest> requests) {
+        Builder builder = new Builder();
+        for (PersonalizedRequest request : requests) {
+            builder.add(request.getTaskId(), request.getPreferDay(), request.getPreferPeriod(), 1);
+        }
+        return builder.build();
+    }
+
+    // 由数据库中按 (教学班, 星期, 时段) 汇总的请求数构建
+    public static PreferenceMatrix ofCounts(List<PersonalizedRequestRepository.PreferenceCount> counts) {
+        Builder builder = new Builder();
+        for (PersonalizedRequestRepository.PreferenceCount count : counts) {
+            builder.add(count.getTaskId(), count.getPreferDay(), count.getPreferPeriod(), count.getRequestCount());
+        }
+        return builder.build();
+    }
+
+    // 按 tasks 的顺序返回每个任务的请求数位掩码，没有请求的任务为空数组
+    public long[][] planesFor(List<Task> tasks) {
+        long[][] planes = new long[tasks.size()][];
+        for (int t = 0; t < tasks.size(); t++) {
+            planes[t] = planesByTeachingClassId.getOrDefault(tasks.get(t).getTeachingClassId(), NO_PREFERENCES);
+        }
+        return planes;
+    }
+
+    // 在给定开始时间段下满足的请求数
+    public static int satisfied(long[] planes, long starts) {
+        int satisfied = 0;
+        for (int bit = 0; bit < planes.length; bit++) {
+            satisfied += Long.bitCount(starts & planes[bit]) << bit;
+        }
+        return satisfied;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public int getTaskCount() {
+        return planesByTeachingClassId.size();
+    }
+
+    // 偏好的开始时间段位掩码，星期或时段无法识别时返回 0
+    static long preferredStarts(String preferDay, String preferPeriod) {
+        long periodStarts = "上午".equals(preferPeriod) ? MORNING_STARTS
+                : "下午".equals(preferPeriod) ? AFTERNOON_STARTS : 0L;
+        for (int day = 1; day <= DAYS; day++) {
+            if (String.valueOf(day).equals(preferDay)) {
+                return periodStarts << ((day - 1) * Schedule.slotsOfDay); // 修正偏差
+            }
+        }
+        return 0L;
+    }
+
+    // 先按时间段累加请求数，最后拆分为二进制位掩码
+    private static class Builder {
+        private final Map<String, long[]> countsByTeachingClassId = new HashMap<>();
+        private long requestCount;
+
+        void add(String teachingClassId, String preferDay, String preferPeriod, long count) {
+            long starts = preferredStarts(preferDay, preferPeriod);
+            if (teachingClassId == null || starts == 0L || count <= 0) {
+                return;
+            }
+            long[] counts = countsByTeachingClassId.computeIfAbsent(teachingClassId,
+                    k -> new long[Schedule.slotsOfWeek]);
+            for (long rest = starts; rest != 0; rest &= rest - 1) {
+                counts[Long.numberOfTrailingZeros(rest)] += count;
+            }
+            requestCount += count;
+        }
+
+        PreferenceMatrix build() {
+            Map<String, long[]> planesByTeachingClassId = new HashMap<>();
+            for (Map.Entry<String, long[]> entry : countsByTeachingClassId.entrySet()) {
+                long[] counts = entry.getValue();
+                long max = 0;
+                for (long count : counts) {
+                    max = Math.max(max, count);
+                }
+                long[] planes = new long[64 - Long.numberOfLeadingZeros(max)];
+                for (int slot = 0; slot < counts.length; slot++) {
+                    for (int bit = 0; bit < planes.length; bit++) {
+                        if ((counts[slot] >>> bit & 1L) != 0) {
+                            planes[bit] |= 1L << slot;
+                        }
+                    }
+                }
+                planesByTeachingClassId.put(entry.getKey(), planes);
+            }
+            return new PreferenceMatrix(planesByTeachingClassId, requestCount);
+        }
+    }
+}
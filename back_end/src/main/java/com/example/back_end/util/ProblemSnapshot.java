@@ -0,0 +1,64 @@
+package com.example.back_end.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 一次排课的输入数据快照
+ * 任务按下标排列（Task.getIndex() 与其在列表中的位置相同），创建后不再修改，可被多次排课共享。
+ * 其中的教室对象只作为只读数据使用，需要记录占用时应先复制。
+ */
+public class ProblemSnapshot {
+
+    private final long version; // 构建时的数据版本号
+    private final List<Classroom> classrooms;
+    private final List<Task> tasks;
+    private final PreferenceMatrix preferences; // 个性化请求汇总后的偏好矩阵
+    private final Map<String, Classroom> classroomsById = new HashMap<>();
+    private final Map<String, Task> tasksByTeachingClassId = new HashMap<>();
+
+    public ProblemSnapshot(long version, List<Classroom> classrooms, List<Task> tasks) {
+        this(version, classrooms, tasks, PreferenceMatrix.EMPTY);
+    }
+
+    public ProblemSnapshot(long version, List<Classroom> classrooms, List<Task> tasks,
+            PreferenceMatrix preferences) {
+        this.version = version;
+        this.preferences = preferences;
+        this.classrooms = Collections.unmodifiableList(classrooms);
+        this.tasks = Collections.unmodifiableList(tasks);
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setIndex(i);
+            tasksByTeachingClassId.put(tasks.get(i).getTeachingClassId(), tasks.get(i));
+        }
+        for (Classroom classroom : classrooms) {
+            classroomsById.put(classroom.getClassroomId(), classroom);
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Classroom> getClassrooms() {
+        return classrooms;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public PreferenceMatrix getPreferences() {
+        return preferences;
+    }
+
+    public Classroom findClassroom(String classroomId) {
+        return classroomsById.get(classroomId);
+    }
+
+    public Task findTask(String teachingClassId) {
+        return tasksByTeachingClassId.get(teachingClassId);
+    }
+}
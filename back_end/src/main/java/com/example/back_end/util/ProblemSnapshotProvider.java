@@ -0,0 +1,57 @@
+package com.example.back_end.util;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.back_end.entity.ProblemDataListener;
+import com.example.back_end.repository.ClassroomRepository;
+import com.example.back_end.repository.PersonalizedRequestRepository;
+import com.example.back_end.repository.TaskRepository;
+
+/*
+ * 按需构建并缓存排课输入数据快照
+ * 启动时不访问数据库；每次排课开始时检查数据版本号，任务或教室未被修改时复用上一次的快照，
+ * 否则通过只查询排课所需字段的投影重新加载；个性化请求在数据库中按 (教学班, 星期, 时段) 汇总后构建偏好矩阵。
+ */
+@Component
+public class ProblemSnapshotProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemSnapshotProvider.class);
+
+    private final ClassroomRepository classroomRepository;
+    private final TaskRepository taskRepository;
+    private final PersonalizedRequestRepository personalizedRequestRepository;
+    private volatile ProblemSnapshot cached;
+
+    public ProblemSnapshotProvider(ClassroomRepository classroomRepository, TaskRepository taskRepository,
+            PersonalizedRequestRepository personalizedRequestRepository) {
+        this.classroomRepository = classroomRepository;
+        this.taskRepository = taskRepository;
+        this.personalizedRequestRepository = personalizedRequestRepository;
+    }
+
+    public synchronized ProblemSnapshot getSnapshot() {
+        // 先读取版本号再加载，加载期间的修改会使下一次调用重新加载
+        long version = ProblemDataListener.currentVersion();
+        ProblemSnapshot snapshot = cached;
+        if (snapshot != null && snapshot.getVersion() == version) {
+            return snapshot;
+        }
+        List<Classroom> classrooms = classroomRepository.findSolverViews().stream()
+                .map(classroom -> new Classroom(classroom))
+                .collect(Collectors.toList());
+        List<Task> tasks = taskRepository.findSolverViews().stream()
+                .map(task -> new Task(task))
+                .collect(Collectors.toList());
+        PreferenceMatrix preferences = PreferenceMatrix.ofCounts(personalizedRequestRepository.countPreferences());
+        snapshot = new ProblemSnapshot(version, classrooms, tasks, preferences);
+        log.info("Loaded problem snapshot version {}: {} tasks, {} classrooms, {} personalized requests on {} tasks",
+                version, tasks.size(), classrooms.size(), preferences.getRequestCount(), preferences.getTaskCount());
+        cached = snapshot;
+        return snapshot;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.back_end.util;
+
+// 贪心解码与修复时候选教室的访问顺序
+public enum RoomSelection {
+    FIRST_FIT, // 首次适应：按教室列表顺序
+    BEST_FIT, // 最佳适应：按容量从小到大，优先使用刚好能容纳教学班的教室
+    BEST_FIT_SAME_BUILDING // 最佳适应，容量相同时优先使用同一教师（或同一教学班组成）的常用教学楼
+}
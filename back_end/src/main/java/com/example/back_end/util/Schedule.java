@@ -1,11 +1,9 @@
 package com.example.back_end.util;
 
-import java.util.List;
-import java.util.Random;
-
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 
 import lombok.Data;
 
@@ -14,91 +12,69 @@ public class Schedule {
 
     private List<Assignment> assignments; // 每个课程的安排
     private double fitness; // 适应度
+    private StopReason stopReason; // 作为排课结果返回时，记录进化结束的原因
 
     // TODO:这三个变量重命名为何classroom的格式一致
     public static final int slotsOfWeek = 40; // 一周的时段数量
     public static final int weeks = 20; // 一学期的周数
     public static final int slotsOfDay = 8; // 一天的时段数量
 
-    public static List<PersonalizedRequest> personalizedRequests = new ArrayList<>(); // 个性化请求列表
-
-    // 构造函数
-    public Schedule(List<Assignment> assignments) {
+    // 按给定的权重与偏好矩阵计算适应度，与排课时的适应度一致
+    public Schedule(List<Assignment> assignments, FitnessWeights weights, PreferenceMatrix preferences) {
         this.assignments = assignments;
-        this.fitness = calculateFitness();
+        this.fitness = calculateFitness(weights, preferences);
     }
 
-    // 适应度计算逻辑
-    // TODO:待完成
-    @Deprecated
-    public double calculateFitness() {
-        double score = 0.0;
+    // 使用已知的适应度构造（例如由缓存恢复），不再重新计算
+    public Schedule(List<Assignment> assignments, double fitness) {
+        this.assignments = assignments;
+        this.fitness = fitness;
+    }
 
-        // 记录每个老师使用的教室
-        HashMap<String, List<String>> teacherClassroomMap = new HashMap<>();
-        // 记录每个班级使用的教室
-        HashMap<String, List<String>> classClassroomMap = new HashMap<>();
+    // 与解码时使用的 FitnessEvaluator 规则相同
+    public double calculateFitness(FitnessWeights weights, PreferenceMatrix preferences) {
+        return calculateFitnessComponents(weights, preferences).getScore();
+    }
 
+    // 分别计算适应度的各组成部分，教室按编号区分，任务为空的安排不参与计算
+    public FitnessBreakdown calculateFitnessComponents(FitnessWeights weights, PreferenceMatrix preferences) {
+        List<Task> tasks = new ArrayList<>();
+        List<Classroom> classrooms = new ArrayList<>();
+        Map<String, Integer> roomIndexes = new HashMap<>();
+        List<Integer> rooms = new ArrayList<>();
+        List<Long> starts = new ArrayList<>();
         for (Assignment assignment : assignments) {
-            if (assignment.getClassroom() != null && assignment.getTimeSlots() != null) {
-                score += 1.0; // 存在合法安排，加分
-
-                String classroomId = assignment.getClassroom().getClassroomId();
-
-                String teacherId = assignment.getTask().getTeacherEmployeeId();
-                teacherClassroomMap
-                        .computeIfAbsent(teacherId, k -> new ArrayList<>())
-                        .add(classroomId); // 记录老师使用的教室
-
-                String classes = assignment.getTask().getTeachingClassComposition();
-                classClassroomMap
-                        .computeIfAbsent(classes, k -> new ArrayList<>())
-                        .add(classroomId); // 记录班级使用的教室
-
-                // 判断满足个性化请求的数量
-                Long satisfiedRequests = personalizedRequests.stream()
-                        .filter(request -> {
-                            if (assignment.getTask().getTeachingClassId().equals(request.getTaskId())) {
-                                String preferDay = request.getPreferDay();
-                                String preferPeriod = request.getPreferPeriod();
-                                for (Integer slot : assignment.getTimeSlots()) {
-                                    int day = slot / slotsOfDay + 1; // 计算星期几 补正偏差
-                                    int start = slot % slotsOfDay + 1; // 计算开始节次 补正偏差
-                                    if (preferDay.equals(String.valueOf(day))) {
-                                        // TODO:这里的数字使用变量会更好，如果修改了一天的时间槽数量，这里也要相应更改
-                                        return preferPeriod.equals("上午") ? (start >= 1 && start <= 4) : // 上午1-4节
-                                                preferPeriod.equals("下午") ? (start >= 5 && start <= 8) : // 下午5-8节
-                                                        false; // 其他情况不满足个性化请求
-                                    }
-                                }
-                            }
-                            return false; // 不满足个性化请求
-                        })
-                        .count();
-
-                // TODO:适应度权重待定
-                score += ((double) satisfiedRequests) * 0.1; // 满足个性化请求，加分
+            if (assignment.getTask() == null) {
+                continue;
             }
+            tasks.add(assignment.getTask());
+            if (assignment.getClassroom() == null || assignment.getTimeSlots() == null) {
+                rooms.add(-1);
+                starts.add(0L);
+                continue;
+            }
+            Classroom classroom = assignment.getClassroom();
+            rooms.add(roomIndexes.computeIfAbsent(classroom.getClassroomId(), k -> {
+                classrooms.add(classroom);
+                return classrooms.size() - 1;
+            }));
+            long slotStarts = 0L;
+            for (Integer slot : assignment.getTimeSlots()) {
+                slotStarts |= 1L << slot;
+            }
+            starts.add(slotStarts);
         }
 
-        // 遍历teracherClassroomMap
-        for (List<String> classroomIds : teacherClassroomMap.values()) {
-            HashSet<String> uniqueClassrooms = new HashSet<>(classroomIds);
-            // 教师重复率越高，加分越多，最多一分
-            double repeatRate = 1.0 - (double) uniqueClassrooms.size() / classroomIds.size();
-            score += repeatRate;
-        }
-
-        // 遍历classClassroomMap
-        for (List<String> classroomIds : classClassroomMap.values()) {
-            HashSet<String> uniqueClassrooms = new HashSet<>(classroomIds);
-            // 班级重复率越高，加分越多，最多一分
-            double repeatRate = 1.0 - (double) uniqueClassrooms.size() / classroomIds.size();
-            score += repeatRate;
+        int[] genes = new int[tasks.size()];
+        int[] roomArray = new int[tasks.size()];
+        long[] startArray = new long[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            genes[i] = i;
+            roomArray[i] = rooms.get(i);
+            startArray[i] = starts.get(i);
         }
-
-        return score;
-        // return score/ assignments.size(); // 适应度为合法安排的比例
+        FitnessEvaluator fitnessEvaluator = new FitnessEvaluator(tasks, classrooms, preferences, weights);
+        return fitnessEvaluator.evaluateComponents(genes, roomArray, startArray);
     }
 
 }
@@ -25,18 +25,24 @@ public class ScheduleAnalyzer {
     private TaskRepository taskRepository;
     private TeacherRepository teacherRepository;
     private CourseRepository courseRepository;
+    private ProblemSnapshotProvider problemSnapshotProvider;
+    private SchedulerConfig schedulerConfig; // 适应度权重与排课使用的默认参数相同
 
     @Autowired
     public void setAssignmentRepository(AssignmentRepository assignmentRepository,
             ClassroomRepository classroomRepository,
             TaskRepository taskRepository,
             TeacherRepository teacherRepository,
-            CourseRepository courseRepository) {
+            CourseRepository courseRepository,
+            ProblemSnapshotProvider problemSnapshotProvider,
+            SchedulerConfig schedulerConfig) {
         this.assignmentRepository = assignmentRepository;
         this.classroomRepository = classroomRepository;
         this.taskRepository = taskRepository;
         this.teacherRepository = teacherRepository;
         this.courseRepository = courseRepository;
+        this.problemSnapshotProvider = problemSnapshotProvider;
+        this.schedulerConfig = schedulerConfig;
     }
 
     // TODO:冲突分析
@@ -111,7 +117,7 @@ public class ScheduleAnalyzer {
         final List<Task> tasks = taskRepository.findAll().stream()
                 .map(task -> new Task(task))
                 .collect(Collectors.toList());
-        List<Assignment> assignments = assignmentRepository.findAll().stream().map(assignment -> {
+        List<Assignment> assignments = assignmentRepository.findPublished().stream().map(assignment -> {
             Classroom classroom = classrooms.stream()
                     .filter(c -> c.getClassroomId().equals(assignment.getClassRoomId()))
                     .findFirst().orElse(null);
@@ -133,8 +139,9 @@ public class ScheduleAnalyzer {
             return new Assignment(classroom, timeSlots, task);
         }).collect(Collectors.toList());
 
-        // 创建 Schedule 对象
-        Schedule schedule = new Schedule(assignments);
+        // 创建 Schedule 对象，适应度按排课时的权重与个性化请求计算
+        Schedule schedule = new Schedule(assignments, schedulerConfig.fitnessWeights(),
+                problemSnapshotProvider.getSnapshot().getPreferences());
         this.schedule = schedule;
 
         // 创建 ScheduleAnalyzer 对象
@@ -30,7 +30,7 @@ public class ScheduleAnalyzerTest {
         final List<Task> tasks = taskRepository.findAll().stream()
                 .map(task -> new Task(task))
                 .collect(Collectors.toList());
-        List<Assignment> assignments = assignmentRepository.findAll().stream().map(assignment -> {
+        List<Assignment> assignments = assignmentRepository.findPublished().stream().map(assignment -> {
             Classroom classroom = classrooms.stream()
                     .filter(c -> c.getClassroomId().equals(assignment.getClassRoomId()))
                     .findFirst().orElse(null);
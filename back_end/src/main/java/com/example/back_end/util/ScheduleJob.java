@@ -0,0 +1,103 @@
+package com.example.back_end.util;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Future;
+
+/*
+ * 一次异步排课任务
+ * 状态由执行线程更新，查询与取消可以在任意线程进行。
+ */
+public class ScheduleJob {
+
+    private final String id;
+    private final SchedulerConfig config;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final ScheduleProgress progress;
+    private volatile ScheduleJobStatus status = ScheduleJobStatus.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String message;
+    private volatile Future<?> future;
+
+    public ScheduleJob(String id, SchedulerConfig config) {
+        this.id = id;
+        this.config = config;
+        this.progress = new ScheduleProgress(id); // 排课指标的 run 标签即任务ID
+    }
+
+    // 开始运行，已被取消的任务返回 false
+    public synchronized boolean markRunning() {
+        if (status != ScheduleJobStatus.QUEUED) {
+            return false;
+        }
+        status = ScheduleJobStatus.RUNNING;
+        startedAt = LocalDateTime.now();
+        return true;
+    }
+
+    public synchronized void markFinished(ScheduleJobStatus finalStatus, String message) {
+        if (isFinished()) {
+            return;
+        }
+        this.status = finalStatus;
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    // 请求取消：排队中的任务直接取消，运行中的任务在当前代结束后停止
+    public synchronized boolean cancel() {
+        if (isFinished()) {
+            return false;
+        }
+        progress.cancel();
+        if (status == ScheduleJobStatus.QUEUED) {
+            markFinished(ScheduleJobStatus.CANCELLED, "排课任务已取消");
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+        return true;
+    }
+
+    public boolean isFinished() {
+        return status == ScheduleJobStatus.SUCCEEDED || status == ScheduleJobStatus.FAILED
+                || status == ScheduleJobStatus.CANCELLED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    // 本次排课使用的参数，运行开始后包含实际使用的随机种子
+    public SchedulerConfig getConfig() {
+        return config;
+    }
+
+    public ScheduleProgress getProgress() {
+        return progress;
+    }
+
+    public ScheduleJobStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setFuture(Future<?> future) {
+        this.future = future;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.back_end.util;
+
+// 排课任务状态
+public enum ScheduleJobStatus {
+    QUEUED, // 排队中
+    RUNNING, // 运行中
+    SUCCEEDED, // 已完成
+    FAILED, // 失败
+    CANCELLED // 已取消
+}
@@ -0,0 +1,104 @@
+package com.example.back_end.util;
+
+import java.util.UUID;
+
+/*
+ * 一次排课的进度与取消标记
+ * 由排课线程在每一代结束时更新，其他线程（例如查询任务状态的请求）只读。
+ */
+public class ScheduleProgress {
+
+    private final String runId; // 本次排课的标识，排课指标以其为 run 标签
+    private volatile boolean cancelled;
+    private volatile int generation = -1; // 已完成的代数，-1 表示尚未开始进化
+    private volatile int maxGenerations;
+    private volatile double bestFitness;
+    private volatile int tasksPlaced;
+    private volatile int totalTasks;
+    private volatile StopReason stopReason; // 进化结束的原因，未结束时为空
+    private volatile ScheduleWriteResult writeResult; // 保存结果的统计，未保存时为空
+    private volatile FitnessBreakdown fitnessBreakdown; // 最终结果的适应度各组成部分，进化结束前为空
+
+    public ScheduleProgress() {
+        this(UUID.randomUUID().toString());
+    }
+
+    public ScheduleProgress(String runId) {
+        this.runId = runId;
+    }
+
+    public void start(int maxGenerations, int totalTasks) {
+        this.maxGenerations = maxGenerations;
+        this.totalTasks = totalTasks;
+    }
+
+    // 记录当前代的最优个体
+    public void update(int generation, TaskList best) {
+        this.tasksPlaced = best.countPlaced();
+        this.bestFitness = best.getFitness();
+        this.generation = generation;
+    }
+
+    // 记录局部搜索改进后的最优个体
+    public void improved(TaskList best) {
+        this.tasksPlaced = best.countPlaced();
+        this.bestFitness = best.getFitness();
+    }
+
+    // 记录最终结果的适应度各组成部分
+    public void evaluated(FitnessBreakdown fitnessBreakdown) {
+        this.fitnessBreakdown = fitnessBreakdown;
+    }
+
+    public void finish(StopReason stopReason) {
+        this.stopReason = stopReason;
+    }
+
+    public void persisted(ScheduleWriteResult writeResult) {
+        this.writeResult = writeResult;
+    }
+
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || Thread.currentThread().isInterrupted();
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public int getMaxGenerations() {
+        return maxGenerations;
+    }
+
+    public double getBestFitness() {
+        return bestFitness;
+    }
+
+    public int getTasksPlaced() {
+        return tasksPlaced;
+    }
+
+    public int getTotalTasks() {
+        return totalTasks;
+    }
+
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    public ScheduleWriteResult getWriteResult() {
+        return writeResult;
+    }
+
+    public FitnessBreakdown getFitnessBreakdown() {
+        return fitnessBreakdown;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.back_end.util;
+
+/*
+ * 一次增量修复的统计
+ * kept 为沿用原安排的任务数，repaired 为重新排入的失效或新增任务数，displaced 为为此被挪动的任务数，
+ * unplaced 为仍无法排入的任务数，removed 为丢弃的已删除任务的行数。
+ */
+public class ScheduleRepairResult {
+
+    private final int kept;
+    private final int repaired;
+    private final int displaced;
+    private final int unplaced;
+    private final int removed;
+    private final double fitness;
+    private final ScheduleWriteResult writeResult;
+    private final long elapsedMillis;
+
+    public ScheduleRepairResult(int kept, int repaired, int displaced, int unplaced, int removed, double fitness,
+            ScheduleWriteResult writeResult, long elapsedMillis) {
+        this.kept = kept;
+        this.repaired = repaired;
+        this.displaced = displaced;
+        this.unplaced = unplaced;
+        this.removed = removed;
+        this.fitness = fitness;
+        this.writeResult = writeResult;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getKept() {
+        return kept;
+    }
+
+    public int getRepaired() {
+        return repaired;
+    }
+
+    public int getDisplaced() {
+        return displaced;
+    }
+
+    public int getUnplaced() {
+        return unplaced;
+    }
+
+    public int getRemoved() {
+        return removed;
+    }
+
+    public double getFitness() {
+        return fitness;
+    }
+
+    public ScheduleWriteResult getWriteResult() {
+        return writeResult;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "kept = " + kept + ", repaired = " + repaired + ", displaced = " + displaced
+                + ", unplaced = " + unplaced + ", removed = " + removed + ", fitness = " + fitness
+                + ", elapsed = " + elapsedMillis + " ms, " + writeResult;
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.back_end.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/*
+ * 增量修复排课
+ * 任务或教室修改后，不重新运行遗传算法，而是在当前发布的排课结果上只修复失效的部分：
+ * 1. 按当前发布的排课结果依次恢复教室占用，任务已删除的行丢弃；
+ *    教室不存在或不再合法、节次数量或长度与任务不符、与已恢复的安排（教室、教师或行政班）冲突的任务，
+ *    以及新增的任务进入待排队列。
+ * 2. 待排任务按优先级依次用与贪心解码相同的首次适应规则排入；无法排入时，在其合法教室中尝试挪走一个已排任务，
+ *    被挪走的任务再按同样规则重新排入，链长不超过 maxDepth，尝试次数不超过 maxAttempts。
+ *    只有被挪走的任务也能重新排入时挪动才生效，因此修复不会使原本已排入的任务变为未排入。
+ * 3. 修复结果作为新版本发布，未受影响的行不产生写入。
+ * 读取发布的排课、修复与发布在锁定发布指针的同一事务中完成，与其他修改按顺序生效。
+ */
+@Component
+public class ScheduleRepairer {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleRepairer.class);
+
+    private final ProblemSnapshotProvider problemSnapshotProvider;
+    private final ScheduleWriter scheduleWriter;
+    private final SchedulerConfig config; // 适应度权重与排课使用的默认参数相同
+    private final int maxDepth; // 挪动链的最大长度，0 表示只按首次适应排入
+    private final int maxAttempts; // 每个待排任务最多尝试挪动的次数
+
+    public ScheduleRepairer(ProblemSnapshotProvider problemSnapshotProvider, ScheduleWriter scheduleWriter,
+            SchedulerConfig config,
+            @Value("${scheduler.repair.max-depth:2}") int maxDepth,
+            @Value("${scheduler.repair.max-attempts:2000}") int maxAttempts) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("挪动链长度不能为负数: " + maxDepth);
+        }
+        if (maxAttempts < 0) {
+            throw new IllegalArgumentException("挪动尝试次数不能为负数: " + maxAttempts);
+        }
+        this.problemSnapshotProvider = problemSnapshotProvider;
+        this.scheduleWriter = scheduleWriter;
+        this.config = config;
+        this.maxDepth = maxDepth;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public ScheduleRepairResult repair() {
+        long startTime = System.currentTimeMillis();
+        ProblemSnapshot snapshot = problemSnapshotProvider.getSnapshot();
+        Repair repair = new Repair(snapshot);
+        // 在锁定发布指针后读取当前发布的排课并修复，期间其他修改等待，修复结果不会覆盖它们
+        ScheduleWriteResult writeResult = scheduleWriter.update(repair::run);
+        ScheduleRepairResult result = new ScheduleRepairResult(repair.kept, repair.repaired, repair.displaced,
+                repair.unplaced, repair.removed, repair.schedule.getFitness(), writeResult,
+                System.currentTimeMillis() - startTime);
+        log.info("Repaired schedule: {}", result);
+        return result;
+    }
+
+    /*
+     * 一次修复的状态：教室占用副本，以及每个任务的教室下标（未排入为 -1）与开始时间段位掩码
+     */
+    private class Repair {
+        private final ProblemSnapshot snapshot;
+        private final List<Task> tasks;
+        private final List<Classroom> rooms = new ArrayList<>();
+        private final EligibleClassroomIndex eligibleClassroomIndex;
+        private final ParticipantOccupancy participants;
+        private final int[] placedRooms;
+        private final long[] slotStarts;
+        private final List<List<Integer>> roomTasks = new ArrayList<>(); // 教室下标 -> 排在该教室的任务下标
+        private final boolean[] locked; // 本次修复已经排入或挪动过的任务，不再被挪动
+        private int kept;
+        private int repaired;
+        private int displaced;
+        private int unplaced;
+        private int removed;
+        private int attempts;
+        private Schedule schedule;
+
+        Repair(ProblemSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.tasks = snapshot.getTasks();
+            int weekMasks = Classroom.distinctWeekMasks(tasks);
+            for (Classroom classroom : snapshot.getClassrooms()) {
+                Classroom room = new Classroom(classroom);
+                room.indexWeekMasks(weekMasks);
+                rooms.add(room);
+                roomTasks.add(new ArrayList<>());
+            }
+            this.eligibleClassroomIndex = new EligibleClassroomIndex(tasks, rooms, config.getRoomSelection());
+            this.participants = new ParticipantOccupancy(new ParticipantIndex(tasks));
+            this.placedRooms = new int[tasks.size()];
+            this.slotStarts = new long[tasks.size()];
+            this.locked = new boolean[tasks.size()];
+            Arrays.fill(placedRooms, -1);
+        }
+
+        // 在发布的排课结果上修复，返回修复后的完整排课
+        List<com.example.back_end.entity.Assignment> run(List<com.example.back_end.entity.Assignment> published) {
+            List<Task> pending = new ArrayList<>();
+            boolean[] seen = new boolean[tasks.size()];
+            for (com.example.back_end.entity.Assignment row : published) {
+                Task task = snapshot.findTask(row.getTeachingClassId());
+                if (task == null) {
+                    removed++; // 任务已删除
+                    continue;
+                }
+                if (seen[task.getIndex()]) {
+                    continue;
+                }
+                seen[task.getIndex()] = true;
+                if (!restore(task, row)) {
+                    pending.add(task);
+                }
+            }
+            for (Task task : tasks) {
+                if (!seen[task.getIndex()]) {
+                    pending.add(task); // 新增的任务
+                }
+            }
+            kept = tasks.size() - pending.size();
+
+            // 与初始种群相同，优先级数值小的任务先排
+            pending.sort(Comparator.comparing(Task::getSchedulePriority).thenComparing(Task::getIndex));
+            for (Task task : pending) {
+                attempts = 0;
+                if (place(task.getIndex(), 0)) {
+                    repaired++;
+                }
+            }
+            unplaced = pending.size() - repaired;
+
+            schedule = toSchedule();
+            List<com.example.back_end.entity.Assignment> entities = new ArrayList<>();
+            for (Assignment assignment : schedule.getAssignments()) {
+                entities.add(assignment.toEntity());
+            }
+            return entities;
+        }
+
+        // 按发布的排课结果恢复任务的安排，安排已失效时返回 false
+        boolean restore(Task task, com.example.back_end.entity.Assignment row) {
+            if (row.getClassRoomId() == null || row.getSlot() == null) {
+                return false;
+            }
+            int room = -1;
+            for (int eligibleRoom : eligibleClassroomIndex.getEligibleRooms(task)) {
+                if (rooms.get(eligibleRoom).getClassroomId().equals(row.getClassRoomId())) {
+                    room = eligibleRoom;
+                }
+            }
+            long starts = parseStarts(row.getSlot(), task.getDurationTime());
+            if (room < 0 || starts == Classroom.NO_SLOTS
+                    || Long.bitCount(starts) != task.getHoursOfWeek() / task.getDurationTime()) {
+                return false;
+            }
+            int length = task.getDurationTime();
+            for (long rest = starts; rest != 0; rest &= rest - 1) {
+                int start = Long.numberOfTrailingZeros(rest);
+                if (!rooms.get(room).isRangeAvailable(task.getWeekMask(), start, start + length - 1)
+                        || !participants.isRangeAvailable(task, start, start + length - 1)) {
+                    return false;
+                }
+            }
+            occupy(task.getIndex(), room, starts);
+            return true;
+        }
+
+        /*
+         * 排入任务：先按候选教室顺序查找，失败时依次尝试挪走合法教室中的一个任务，
+         * 被挪走的任务以 depth + 1 递归排入，失败则撤销本次挪动。返回 false 时状态不变。
+         */
+        boolean place(int taskIndex, int depth) {
+            Task task = tasks.get(taskIndex);
+            int classNum = task.getHoursOfWeek() / task.getDurationTime();
+            long freeStarts = participants.freeStarts(task);
+            for (int room : eligibleClassroomIndex.getCandidateRooms(task)) {
+                long starts = rooms.get(room).tryOccupyStarts(task.getWeekMask(), task.getDurationTime(), classNum,
+                        freeStarts);
+                if (starts != Classroom.NO_SLOTS) {
+                    record(taskIndex, room, starts);
+                    return true;
+                }
+            }
+            if (depth >= maxDepth) {
+                return false;
+            }
+            locked[taskIndex] = true;
+            for (int room : eligibleClassroomIndex.getCandidateRooms(task)) {
+                for (int victim : new ArrayList<>(roomTasks.get(room))) {
+                    if (locked[victim]) {
+                        continue;
+                    }
+                    if (attempts++ >= maxAttempts) {
+                        locked[taskIndex] = false;
+                        return false;
+                    }
+                    long victimStarts = slotStarts[victim];
+                    release(victim);
+                    long starts = rooms.get(room).tryOccupyStarts(task.getWeekMask(), task.getDurationTime(),
+                            classNum, participants.freeStarts(task));
+                    if (starts != Classroom.NO_SLOTS) {
+                        record(taskIndex, room, starts);
+                        if (place(victim, depth + 1)) {
+                            locked[victim] = true;
+                            displaced++;
+                            return true;
+                        }
+                        release(taskIndex);
+                    }
+                    occupy(victim, room, victimStarts);
+                }
+            }
+            locked[taskIndex] = false;
+            return false;
+        }
+
+        private void occupy(int taskIndex, int room, long starts) {
+            Task task = tasks.get(taskIndex);
+            for (long rest = starts; rest != 0; rest &= rest - 1) {
+                int start = Long.numberOfTrailingZeros(rest);
+                rooms.get(room).occupyRange(task.getWeekMask(), start, start + task.getDurationTime() - 1);
+            }
+            record(taskIndex, room, starts);
+        }
+
+        // 记录已经占用了教室的安排，并占用教师与行政班
+        private void record(int taskIndex, int room, long starts) {
+            participants.occupy(tasks.get(taskIndex), starts);
+            placedRooms[taskIndex] = room;
+            slotStarts[taskIndex] = starts;
+            roomTasks.get(room).add(taskIndex);
+        }
+
+        private void release(int taskIndex) {
+            Task task = tasks.get(taskIndex);
+            int room = placedRooms[taskIndex];
+            for (long rest = slotStarts[taskIndex]; rest != 0; rest &= rest - 1) {
+                int start = Long.numberOfTrailingZeros(rest);
+                rooms.get(room).releaseRange(task.getWeekMask(), start, start + task.getDurationTime() - 1);
+            }
+            participants.release(task, slotStarts[taskIndex]);
+            roomTasks.get(room).remove(Integer.valueOf(taskIndex));
+            placedRooms[taskIndex] = -1;
+            slotStarts[taskIndex] = 0L;
+        }
+
+        // 生成完整的排课方案，教室引用快照中的只读对象
+        Schedule toSchedule() {
+            int[] genes = new int[tasks.size()];
+            List<Assignment> assignments = new ArrayList<>(tasks.size());
+            for (int t = 0; t < tasks.size(); t++) {
+                genes[t] = t;
+                Classroom classroom = null;
+                List<Integer> timeSlots = null;
+                if (placedRooms[t] >= 0) {
+                    classroom = snapshot.getClassrooms().get(placedRooms[t]);
+                    timeSlots = new ArrayList<>();
+                    for (long starts = slotStarts[t]; starts != 0; starts &= starts - 1) {
+                        timeSlots.add(Long.numberOfTrailingZeros(starts));
+                    }
+                }
+                assignments.add(new Assignment(classroom, timeSlots, tasks.get(t)));
+            }
+            FitnessEvaluator fitnessEvaluator = new FitnessEvaluator(tasks, snapshot.getClassrooms(),
+                    snapshot.getPreferences(), config.fitnessWeights());
+            return new Schedule(assignments, fitnessEvaluator.evaluate(genes, placedRooms, slotStarts));
+        }
+    }
+
+    // 解析 day:start-end,day:start-end 格式的时间，节次长度与 length 不符或格式错误时返回 NO_SLOTS
+    static long parseStarts(String slot, int length) {
+        long starts = 0L;
+        try {
+            for (String part : slot.split(",")) {
+                String[] subParts = part.split(":");
+                String[] timeParts = subParts[1].split("-");
+                int day = Integer.parseInt(subParts[0]) - 1; // 修正偏差
+                int start = Integer.parseInt(timeParts[0]) - 1; // 修正偏差
+                int end = Integer.parseInt(timeParts[1]) - 1;
+                if (day < 0 || day >= Schedule.slotsOfWeek / Schedule.slotsOfDay || start < 0
+                        || end - start + 1 != length || end >= Schedule.slotsOfDay) {
+                    return Classroom.NO_SLOTS;
+                }
+                starts |= 1L << (day * Schedule.slotsOfDay + start);
+            }
+        } catch (RuntimeException e) {
+            return Classroom.NO_SLOTS;
+        }
+        return starts;
+    }
+}
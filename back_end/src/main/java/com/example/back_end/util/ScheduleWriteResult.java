@@ -0,0 +1,72 @@
+package com.example.back_end.util;
+
+/*
+ * 一次发布排课结果的统计
+ * inserted、updated、deleted、unchanged 按教学班统计相对上一版本的变化，purged 为清理的旧版本行数。
+ */
+public class ScheduleWriteResult {
+
+    private final long version; // 发布的排课版本
+    private final int inserted;
+    private final int updated;
+    private final int deleted;
+    private final int unchanged;
+    private final int purged;
+    private final long elapsedMillis;
+
+    public ScheduleWriteResult(long version, int inserted, int updated, int deleted, int unchanged, int purged,
+            long elapsedMillis) {
+        this.version = version;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.deleted = deleted;
+        this.unchanged = unchanged;
+        this.purged = purged;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public int getPurged() {
+        return purged;
+    }
+
+    // 实际写入的行数：新增的行插入一行，变化的行关闭旧行并插入一行，删除的行关闭旧行，另加清理的行
+    public int getRowsWritten() {
+        return inserted + updated * 2 + deleted + purged;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // 每秒写入的行数，耗时不足 1 毫秒时按 1 毫秒计算
+    public double getRowsPerSecond() {
+        return getRowsWritten() * 1000.0 / Math.max(1, elapsedMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "version = " + version + ", inserted = " + inserted + ", updated = " + updated
+                + ", deleted = " + deleted + ", unchanged = " + unchanged + ", purged = " + purged
+                + ", elapsed = " + elapsedMillis + " ms, " + String.format("%.1f", getRowsPerSecond()) + " rows/s";
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.back_end.util;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.back_end.entity.Assignment;
+
+/*
+ * 发布排课结果
+ * 每次保存生成一个新的排课版本。schedule_assignment 中的每一行在版本 [valid_from, valid_to) 内有效，
+ * 与当前版本逐行比较（以教学班ID为主键）：内容未变化的行直接沿用；变化或删除的行把 valid_to 设为新版本，
+ * 变化或新增的行以新版本为 valid_from 插入。所有修改按批发送，最后在同一事务中把发布指针切换到新版本。
+ * 读取只返回发布指针所指版本中有效的行，新版本的行在指针切换前对读取不可见，写入期间读取不受影响。
+ * 发布后删除已不属于最近 retainedVersions 个版本的行。
+ * 修改单个教学班时使用 publishChange，只读取并比较该教学班的行。
+ */
+@Component
+public class ScheduleWriter {
+
+    // 每批发送的语句数
+    private static final int BATCH_SIZE = 500;
+    // 仍然有效的行的 valid_to
+    public static final long OPEN_VERSION = Long.MAX_VALUE;
+
+    // 以下语句为包内可见，测试中的内存表按语句识别操作
+    static final String INIT_PUBLICATION_SQL = "INSERT IGNORE INTO schedule_publication "
+            + "(id, current_version) VALUES (1, 0)";
+    // 锁定发布指针，多个写入按顺序生成版本
+    static final String LOCK_PUBLICATION_SQL = "SELECT current_version FROM schedule_publication "
+            + "WHERE id = 1 FOR UPDATE";
+    static final String PUBLISH_SQL = "UPDATE schedule_publication SET current_version = ?, "
+            + "published_at = ? WHERE id = 1";
+    static final String SELECT_SQL = "SELECT teaching_class_id, course_id, course_name, class_room_id, "
+            + "class_room_name, slot, weeks FROM schedule_assignment WHERE valid_to = " + OPEN_VERSION;
+    static final String INSERT_SQL = "INSERT INTO schedule_assignment (course_id, course_name, "
+            + "class_room_id, class_room_name, slot, weeks, teaching_class_id, valid_from, valid_to) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, " + OPEN_VERSION + ")";
+    static final String CLOSE_SQL = "UPDATE schedule_assignment SET valid_to = ? "
+            + "WHERE teaching_class_id = ? AND valid_to = " + OPEN_VERSION;
+    static final String SELECT_ONE_SQL = SELECT_SQL + " AND teaching_class_id = ?";
+    static final String COUNT_OPEN_SQL = "SELECT COUNT(*) FROM schedule_assignment WHERE valid_to = "
+            + OPEN_VERSION;
+    static final String PURGE_SQL = "DELETE FROM schedule_assignment WHERE valid_to <= ?";
+    // 旧版本的排课结果保存在 assignment 表中（以教学班ID为主键，没有版本区间）
+    static final String COUNT_ROWS_SQL = "SELECT COUNT(*) FROM schedule_assignment";
+    static final String LEGACY_TABLE_SQL = "SELECT COUNT(*) FROM information_schema.tables "
+            + "WHERE table_schema = DATABASE() AND table_name = 'assignment'";
+    static final String MIGRATE_SQL = "INSERT INTO schedule_assignment (course_id, course_name, "
+            + "class_room_id, class_room_name, slot, weeks, teaching_class_id, valid_from, valid_to) "
+            + "SELECT course_id, course_name, class_room_id, class_room_name, slot, weeks, teaching_class_id, "
+            + "1, " + OPEN_VERSION + " FROM assignment";
+
+    private static final RowMapper<Assignment> ROW_MAPPER = (rs, rowNum) -> {
+        Assignment assignment = new Assignment();
+        assignment.setTeachingClassId(rs.getString("teaching_class_id"));
+        assignment.setCourseId(rs.getString("course_id"));
+        assignment.setCourseName(rs.getString("course_name"));
+        assignment.setClassRoomId(rs.getString("class_room_id"));
+        assignment.setClassRoomName(rs.getString("class_room_name"));
+        assignment.setSlot(rs.getString("slot"));
+        assignment.setWeeks(rs.getString("weeks"));
+        return assignment;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int retainedVersions; // 保留最近多少个版本（含当前发布的版本）
+
+    public ScheduleWriter(JdbcTemplate jdbcTemplate,
+            @Value("${scheduler.publication.retained-versions:3}") int retainedVersions) {
+        if (retainedVersions < 1) {
+            throw new IllegalArgumentException("保留版本数至少为 1: " + retainedVersions);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.retainedVersions = retainedVersions;
+    }
+
+    @Transactional
+    public ScheduleWriteResult write(List<Assignment> assignments) {
+        return update(current -> assignments);
+    }
+
+    /*
+     * 在锁定发布指针后读取当前发布的排课，由 change 根据它计算新的完整排课并发布为新版本
+     * change 在同一事务中执行，期间其他写入等待，因此它读到的排课不会被并发的修改覆盖；change 不应修改传入的行。
+     */
+    @Transactional
+    public ScheduleWriteResult update(UnaryOperator<List<Assignment>> change) {
+        long startTime = System.currentTimeMillis();
+        long version = lockNextVersion();
+
+        // 仍然有效的行即当前发布版本的全部排课
+        Map<String, Assignment> current = new LinkedHashMap<>();
+        for (Assignment row : jdbcTemplate.query(SELECT_SQL, ROW_MAPPER)) {
+            current.put(row.getTeachingClassId(), row);
+        }
+        return publish(startTime, version, current, change.apply(new ArrayList<>(current.values())), 0);
+    }
+
+    /*
+     * 只修改一个教学班的排课并发布为新版本，assignment 为空时删除该教学班的排课
+     * 在锁定发布指针后读取该教学班当前有效的行，并发的修改按顺序生效，不会覆盖彼此的结果；
+     * 其余教学班的行不读取也不修改，计为未变化。
+     */
+    @Transactional
+    public ScheduleWriteResult publishChange(String teachingClassId, Assignment assignment) {
+        if (assignment != null && !teachingClassId.equals(assignment.getTeachingClassId())) {
+            throw new IllegalArgumentException("排课的教学班ID与要修改的教学班不一致: " + teachingClassId
+                    + " / " + assignment.getTeachingClassId());
+        }
+        long startTime = System.currentTimeMillis();
+        long version = lockNextVersion();
+
+        Map<String, Assignment> current = new HashMap<>();
+        for (Assignment row : jdbcTemplate.query(SELECT_ONE_SQL, ROW_MAPPER, teachingClassId)) {
+            current.put(row.getTeachingClassId(), row);
+        }
+        int others = jdbcTemplate.queryForObject(COUNT_OPEN_SQL, Integer.class) - current.size();
+        return publish(startTime, version, current,
+                assignment == null ? List.of() : List.of(assignment), others);
+    }
+
+    /*
+     * 把旧版 assignment 表中的排课发布为版本 1
+     * 只在从未发布过排课结果、schedule_assignment 为空且旧表存在时执行，返回迁移的行数。
+     */
+    @Transactional
+    public int migrateLegacyAssignments() {
+        jdbcTemplate.update(INIT_PUBLICATION_SQL);
+        if (jdbcTemplate.queryForObject(LOCK_PUBLICATION_SQL, Long.class) != 0
+                || jdbcTemplate.queryForObject(COUNT_ROWS_SQL, Integer.class) > 0
+                || jdbcTemplate.queryForObject(LEGACY_TABLE_SQL, Integer.class) == 0) {
+            return 0;
+        }
+        int migrated = jdbcTemplate.update(MIGRATE_SQL);
+        if (migrated > 0) {
+            jdbcTemplate.update(PUBLISH_SQL, 1L, new Timestamp(System.currentTimeMillis()));
+        }
+        return migrated;
+    }
+
+    // 锁定发布指针并返回要写入的新版本
+    private long lockNextVersion() {
+        jdbcTemplate.update(INIT_PUBLICATION_SQL);
+        return jdbcTemplate.queryForObject(LOCK_PUBLICATION_SQL, Long.class) + 1;
+    }
+
+    /*
+     * 把 current 中的行与 assignments 逐行比较后写入并发布新版本
+     * current 中没有出现在 assignments 里的教学班被删除；untouched 为不在 current 中、沿用到新版本的行数。
+     */
+    private ScheduleWriteResult publish(long startTime, long version, Map<String, Assignment> current,
+            List<Assignment> assignments, int untouched) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> closes = new ArrayList<>();
+        Set<String> kept = new HashSet<>();
+        int added = 0;
+        int updated = 0;
+        int unchanged = untouched;
+        for (Assignment assignment : assignments) {
+            kept.add(assignment.getTeachingClassId());
+            Assignment existing = current.get(assignment.getTeachingClassId());
+            if (existing == null) {
+                inserts.add(toParameters(assignment, version));
+                added++;
+            } else if (!sameContent(existing, assignment)) {
+                closes.add(new Object[] { version, assignment.getTeachingClassId() });
+                inserts.add(toParameters(assignment, version));
+                updated++;
+            } else {
+                unchanged++;
+            }
+        }
+        int deleted = 0;
+        for (String teachingClassId : current.keySet()) {
+            if (!kept.contains(teachingClassId)) {
+                closes.add(new Object[] { version, teachingClassId });
+                deleted++;
+            }
+        }
+
+        batchUpdate(CLOSE_SQL, closes);
+        batchUpdate(INSERT_SQL, inserts);
+        jdbcTemplate.update(PUBLISH_SQL, version, new Timestamp(System.currentTimeMillis()));
+        // 最早保留的版本中有效的行满足 valid_to > oldestRetained，其余的行不再被任何保留的版本使用
+        long oldestRetained = version - retainedVersions + 1;
+        int purged = oldestRetained > 0 ? jdbcTemplate.update(PURGE_SQL, oldestRetained) : 0;
+        return new ScheduleWriteResult(version, added, updated, deleted, unchanged, purged,
+                System.currentTimeMillis() - startTime);
+    }
+
+    private boolean sameContent(Assignment a, Assignment b) {
+        return Objects.equals(a.getCourseId(), b.getCourseId())
+                && Objects.equals(a.getCourseName(), b.getCourseName())
+                && Objects.equals(a.getClassRoomId(), b.getClassRoomId())
+                && Objects.equals(a.getClassRoomName(), b.getClassRoomName())
+                && Objects.equals(a.getSlot(), b.getSlot())
+                && Objects.equals(a.getWeeks(), b.getWeeks());
+    }
+
+    // 参数顺序与 INSERT_SQL 相同
+    private Object[] toParameters(Assignment assignment, long version) {
+        return new Object[] { assignment.getCourseId(), assignment.getCourseName(), assignment.getClassRoomId(),
+                assignment.getClassRoomName(), assignment.getSlot(), assignment.getWeeks(),
+                assignment.getTeachingClassId(), version };
+    }
+
+    private void batchUpdate(String sql, List<Object[]> parameters) {
+        for (int from = 0; from < parameters.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, parameters.subList(from, Math.min(from + BATCH_SIZE, parameters.size())));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.back_end.util;
+
+import lombok.Data;
+
+/*
+ * 遗传算法排课参数
+ * 默认值由 application.properties 中 scheduler.* 配置绑定，每次排课可在副本上覆盖部分参数。
+ * 排课使用的参数（含实际使用的随机种子）随结果一起保存，便于复现与比较。
+ */
+@Data
+public class SchedulerConfig {
+
+    private int populationSize = 100; // 种群大小
+    private int maxGenerations = 10; // 最大迭代次数
+    private long timeBudgetMillis = 0; // 整次排课的运行时间上限（毫秒，含加载输入、初始化种群与局部搜索），0 表示不限制
+    private int stallGenerations = 0; // 连续多少代最优适应度没有提升时提前结束，0 表示不启用
+    private Double targetFitness; // 最优适应度达到该值时提前结束，为空表示不启用
+    private int eliteCount = 1; // 每代直接保留的最优个体数
+    private double mutationRate = 1.0; // 变异率
+    private double crossoverRate = 0.8; // 交叉率
+    private CrossoverOperator crossoverOperator = CrossoverOperator.ORDER; // 交叉算子
+    private SelectionStrategy selectionStrategy = SelectionStrategy.ROULETTE; // 父代选择方式
+    private int tournamentSize = 3; // 锦标赛选择每次抽取的个体数
+    private Long seed; // 随机种子，为空时每次排课随机生成；相同种子下并行与顺序执行结果一致
+    private int workerThreads = 0; // 并行解码的工作线程数，0 表示使用全部CPU核心，1 表示顺序执行
+    private int checkpointInterval = 64; // 解码检查点间隔（任务数），越小恢复越快但占用内存越多
+    private int fitnessCacheSize = 4096; // 适应度缓存容量（个体数），0 表示不缓存
+    private int islands = 1; // 岛屿数量，大于 1 时各岛屿的种群独立进化，并定期迁移最优个体
+    private int migrationInterval = 5; // 迁移间隔（代数）
+    private int migrationSize = 2; // 每次从每个岛屿迁出的最优个体数
+    private MigrationTopology migrationTopology = MigrationTopology.RING; // 迁移拓扑
+    private long localSearchMillis = 3000; // 进化结束后局部搜索的运行时间上限（毫秒），0 表示不做局部搜索；不超过 timeBudgetMillis 的剩余时间
+    private int localSearchIterations = 1000000; // 每次局部搜索的最大迭代次数，0 表示只受运行时间限制
+    private int localSearchRestarts = 4; // 局部搜索的独立重启次数，各次重启可并行执行
+    private double placementWeight = 1.0; // 适应度中每个排入任务的权重
+    private double roomStabilityWeight = 1.0; // 适应度中教室稳定性的权重
+    private double preferenceWeight = 0.1; // 适应度中每个满足的个性化请求的权重
+    private double compactnessWeight = 0.0; // 适应度中每个空闲节次的扣分权重，0 表示不考虑紧凑度
+    private RoomSelection roomSelection = RoomSelection.BEST_FIT; // 解码时候选教室的访问顺序
+
+    // 复制一份参数，用于单次排课的覆盖
+    public SchedulerConfig copy() {
+        SchedulerConfig copy = new SchedulerConfig();
+        copy.populationSize = populationSize;
+        copy.maxGenerations = maxGenerations;
+        copy.timeBudgetMillis = timeBudgetMillis;
+        copy.stallGenerations = stallGenerations;
+        copy.targetFitness = targetFitness;
+        copy.eliteCount = eliteCount;
+        copy.mutationRate = mutationRate;
+        copy.crossoverRate = crossoverRate;
+        copy.crossoverOperator = crossoverOperator;
+        copy.selectionStrategy = selectionStrategy;
+        copy.tournamentSize = tournamentSize;
+        copy.seed = seed;
+        copy.workerThreads = workerThreads;
+        copy.checkpointInterval = checkpointInterval;
+        copy.fitnessCacheSize = fitnessCacheSize;
+        copy.islands = islands;
+        copy.migrationInterval = migrationInterval;
+        copy.migrationSize = migrationSize;
+        copy.migrationTopology = migrationTopology;
+        copy.localSearchMillis = localSearchMillis;
+        copy.localSearchIterations = localSearchIterations;
+        copy.localSearchRestarts = localSearchRestarts;
+        copy.placementWeight = placementWeight;
+        copy.roomStabilityWeight = roomStabilityWeight;
+        copy.preferenceWeight = preferenceWeight;
+        copy.compactnessWeight = compactnessWeight;
+        copy.roomSelection = roomSelection;
+        return copy;
+    }
+
+    // 适应度各组成部分的权重
+    public FitnessWeights fitnessWeights() {
+        return new FitnessWeights(placementWeight, roomStabilityWeight, preferenceWeight, compactnessWeight);
+    }
+
+    // 检查参数是否合法，不合法时抛出 IllegalArgumentException
+    public void validate() {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("种群大小至少为 2: " + populationSize);
+        }
+        if (maxGenerations < 1) {
+            throw new IllegalArgumentException("最大迭代次数至少为 1: " + maxGenerations);
+        }
+        if (timeBudgetMillis < 0) {
+            throw new IllegalArgumentException("运行时间上限不能为负数: " + timeBudgetMillis);
+        }
+        if (stallGenerations < 0) {
+            throw new IllegalArgumentException("无提升代数不能为负数: " + stallGenerations);
+        }
+        if (targetFitness != null && targetFitness.isNaN()) {
+            throw new IllegalArgumentException("目标适应度不合法: " + targetFitness);
+        }
+        if (eliteCount < 0 || eliteCount >= populationSize) {
+            throw new IllegalArgumentException("保留个体数必须在 0 与种群大小之间: " + eliteCount);
+        }
+        if (!(mutationRate >= 0.0 && mutationRate <= 1.0)) {
+            throw new IllegalArgumentException("变异率必须在 0 到 1 之间: " + mutationRate);
+        }
+        if (!(crossoverRate >= 0.0 && crossoverRate <= 1.0)) {
+            throw new IllegalArgumentException("交叉率必须在 0 到 1 之间: " + crossoverRate);
+        }
+        if (crossoverOperator == null) {
+            throw new IllegalArgumentException("交叉算子不能为空");
+        }
+        if (selectionStrategy == null) {
+            throw new IllegalArgumentException("选择方式不能为空");
+        }
+        if (tournamentSize < 1) {
+            throw new IllegalArgumentException("锦标赛规模至少为 1: " + tournamentSize);
+        }
+        if (workerThreads < 0) {
+            throw new IllegalArgumentException("工作线程数不能为负数: " + workerThreads);
+        }
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("检查点间隔至少为 1: " + checkpointInterval);
+        }
+        if (fitnessCacheSize < 0) {
+            throw new IllegalArgumentException("适应度缓存容量不能为负数: " + fitnessCacheSize);
+        }
+        if (islands < 1) {
+            throw new IllegalArgumentException("岛屿数量至少为 1: " + islands);
+        }
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("迁移间隔至少为 1: " + migrationInterval);
+        }
+        if (migrationSize < 0) {
+            throw new IllegalArgumentException("迁移个体数不能为负数: " + migrationSize);
+        }
+        if (migrationTopology == null) {
+            throw new IllegalArgumentException("迁移拓扑不能为空");
+        }
+        if (localSearchMillis < 0) {
+            throw new IllegalArgumentException("局部搜索时间上限不能为负数: " + localSearchMillis);
+        }
+        if (localSearchIterations < 0) {
+            throw new IllegalArgumentException("局部搜索迭代次数不能为负数: " + localSearchIterations);
+        }
+        if (localSearchRestarts < 1) {
+            throw new IllegalArgumentException("局部搜索重启次数至少为 1: " + localSearchRestarts);
+        }
+        if (!(placementWeight >= 0.0) || !(roomStabilityWeight >= 0.0) || !(preferenceWeight >= 0.0)
+                || !(compactnessWeight >= 0.0)) {
+            throw new IllegalArgumentException("适应度权重不能为负数: " + fitnessWeights());
+        }
+        if (roomSelection == null) {
+            throw new IllegalArgumentException("教室选择方式不能为空");
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.back_end.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/*
+ * 排课过程的 Micrometer 指标，通过 Actuator 的 /actuator/metrics 与 /actuator/prometheus 暴露
+ * 每次排课的指标都带有 run 标签（排课任务ID），排课进行中即可按 run 绘制每一代的曲线。
+ * 只保留最近 retainedRuns 次排课的指标，更早的在新排课开始时从注册表中移除，避免标签无限增长。
+ */
+@Component
+public class SchedulerMetrics {
+
+    private final MeterRegistry registry;
+    private final int retainedRuns;
+    private final Deque<Run> runs = new ArrayDeque<>();
+
+    public SchedulerMetrics(MeterRegistry registry,
+            @Value("${scheduler.metrics.retained-runs:5}") int retainedRuns) {
+        if (retainedRuns < 1) {
+            throw new IllegalArgumentException("Retained runs must be positive: " + retainedRuns);
+        }
+        this.registry = registry;
+        this.retainedRuns = retainedRuns;
+    }
+
+    // 开始记录一次排课的指标
+    public synchronized Run start(String runId) {
+        while (runs.size() >= retainedRuns) {
+            runs.removeFirst().remove();
+        }
+        Run run = new Run(runId);
+        runs.addLast(run);
+        return run;
+    }
+
+    /*
+     * 一次排课的指标，只由排课线程更新
+     * 计时：输入快照加载、种群初始化、每一代、局部搜索、保存到数据库；
+     * 计数：解码次数、适应度缓存命中与未命中次数（每代结束时按缓存统计的增量累加）；
+     * 当前值：已完成的代数、最优与平均适应度、排入与未排入的任务数、最近一代每秒解码次数。
+     */
+    public class Run {
+        private final String runId;
+        private final List<Meter> meters = new ArrayList<>();
+        private final Timer snapshotLoad;
+        private final Timer populationInit;
+        private final Timer generationTime;
+        private final Timer localSearch;
+        private final Timer persist;
+        private final Counter decodes;
+        private final Counter cacheHits;
+        private final Counter cacheMisses;
+        private volatile double generation = -1;
+        private volatile double bestFitness;
+        private volatile double meanFitness;
+        private volatile double tasksPlaced;
+        private volatile double tasksUnplaced;
+        private volatile double decodeRate;
+        private long lastHits;
+        private long lastMisses;
+
+        private Run(String runId) {
+            this.runId = runId;
+            this.snapshotLoad = timer("scheduler.snapshot.load", "加载排课输入快照的时间");
+            this.populationInit = timer("scheduler.population.init", "生成并解码初始种群的时间");
+            this.generationTime = timer("scheduler.generation", "每一代进化的时间");
+            this.localSearch = timer("scheduler.local.search", "进化结束后局部搜索的时间");
+            this.persist = timer("scheduler.persist", "保存并发布排课结果的时间");
+            this.decodes = counter("scheduler.decodes", "贪心解码次数（未命中适应度缓存的个体）", null);
+            this.cacheHits = counter("scheduler.cache.requests", "适应度缓存查找次数", "hit");
+            this.cacheMisses = counter("scheduler.cache.requests", "适应度缓存查找次数", "miss");
+            gauge("scheduler.generation.current", "已完成的代数", run -> run.generation);
+            gauge("scheduler.fitness.best", "当前最优适应度", run -> run.bestFitness);
+            gauge("scheduler.fitness.mean", "当前种群的平均适应度", run -> run.meanFitness);
+            gauge("scheduler.tasks.placed", "当前最优方案排入的任务数", run -> run.tasksPlaced);
+            gauge("scheduler.tasks.unplaced", "当前最优方案未排入的任务数", run -> run.tasksUnplaced);
+            gauge("scheduler.decode.rate", "最近一代每秒解码次数", run -> run.decodeRate);
+        }
+
+        public <T> T timeSnapshotLoad(Supplier<T> load) {
+            return snapshotLoad.record(load);
+        }
+
+        public <T> T timePopulationInit(Supplier<T> init) {
+            return populationInit.record(init);
+        }
+
+        public <T> T timeLocalSearch(Supplier<T> search) {
+            return localSearch.record(search);
+        }
+
+        public <T> T timePersist(Supplier<T> write) {
+            return persist.record(write);
+        }
+
+        /*
+         * 记录 generations 代进化（岛屿模型中为一次迁移间隔）的结果：
+         * 总时间平均到每一代，缓存统计取自上次记录以来的增量，未命中缓存的个体都经过一次解码
+         */
+        public void generations(int lastGeneration, int generations, long nanos, List<TaskList> population,
+                TaskList best, FitnessCache fitnessCache) {
+            for (int i = 0; i < generations; i++) {
+                generationTime.record(nanos / generations, TimeUnit.NANOSECONDS);
+            }
+            long hits = fitnessCache.getHitCount() - lastHits;
+            long misses = fitnessCache.getMissCount() - lastMisses;
+            lastHits += hits;
+            lastMisses += misses;
+            cacheHits.increment(hits);
+            cacheMisses.increment(misses);
+            decodes.increment(misses);
+            decodeRate = nanos > 0 ? misses * 1e9 / nanos : 0;
+            meanFitness = population.stream().mapToDouble(TaskList::getFitness).average().orElse(0);
+            generation = lastGeneration;
+            best(best);
+        }
+
+        // 记录初始种群的解码次数与缓存统计
+        public void initialized(List<TaskList> population, TaskList best, FitnessCache fitnessCache) {
+            generations(-1, 0, 0, population, best, fitnessCache);
+        }
+
+        // 记录当前最优个体（局部搜索改进后也调用）
+        public void best(TaskList best) {
+            bestFitness = best.getFitness();
+            tasksPlaced = best.countPlaced();
+            tasksUnplaced = best.size() - best.countPlaced();
+        }
+
+        public String getRunId() {
+            return runId;
+        }
+
+        private Timer timer(String name, String description) {
+            Timer timer = Timer.builder(name).description(description).tag("run", runId).register(registry);
+            meters.add(timer);
+            return timer;
+        }
+
+        private Counter counter(String name, String description, String result) {
+            Counter.Builder builder = Counter.builder(name).description(description).tag("run", runId);
+            if (result != null) {
+                builder.tag("result", result);
+            }
+            Counter counter = builder.register(registry);
+            meters.add(counter);
+            return counter;
+        }
+
+        private void gauge(String name, String description, ToDoubleFunction<Run> value) {
+            meters.add(Gauge.builder(name, this, value).description(description).tag("run", runId)
+                    .strongReference(true).register(registry));
+        }
+
+        private void remove() {
+            meters.forEach(registry::remove);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.back_end.util;
+
+// 父代选择方式
+public enum SelectionStrategy {
+    ROULETTE, // 轮盘赌：按适应度比例选择
+    TOURNAMENT, // 锦标赛：随机抽取若干个体，选择其中适应度最高的
+    RANK // 排序选择：按适应度排名（而非适应度数值）比例选择
+}
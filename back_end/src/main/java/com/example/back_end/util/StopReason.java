@@ -0,0 +1,19 @@
+package com.example.back_end.util;
+
+// 排课进化结束的原因
+public enum StopReason {
+    MAX_GENERATIONS("达到最大迭代次数"),
+    STALLED("连续多代最优适应度没有提升"),
+    TIME_BUDGET("达到运行时间上限"),
+    TARGET_FITNESS("达到目标适应度");
+
+    private final String description;
+
+    StopReason(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.back_end.util;
+
+/*
+ * 进化终止条件
+ * 每代（岛屿模型为每次迁移前）结束后检查一次，最先满足的条件结束排课：
+ * 达到最大迭代次数、运行时间上限、目标适应度，或连续 stallGenerations 代最优适应度没有提升。
+ * 运行时间上限从创建时开始计算，排课开始时即创建，因此包括加载输入与初始化种群的时间。
+ */
+public class StoppingCriteria {
+
+    // 适应度提升小于该值视为没有提升，避免浮点累加误差
+    private static final double IMPROVEMENT_EPSILON = 1e-9;
+
+    private final int maxGenerations;
+    private final int stallGenerations;
+    private final Double targetFitness;
+    private final long deadline;
+
+    private double bestFitness = Double.NEGATIVE_INFINITY;
+    private int lastImprovedGeneration;
+
+    public StoppingCriteria(SchedulerConfig config) {
+        this.maxGenerations = config.getMaxGenerations();
+        this.stallGenerations = config.getStallGenerations();
+        this.targetFitness = config.getTargetFitness();
+        this.deadline = config.getTimeBudgetMillis() > 0
+                ? System.currentTimeMillis() + config.getTimeBudgetMillis()
+                : Long.MAX_VALUE;
+    }
+
+    /*
+     * 完成 generations 代后检查是否结束，返回结束原因，继续进化时返回 null
+     * 目标适应度优先于其他条件，以便同时满足时报告已达到目标
+     */
+    public StopReason check(int generations, double fitness) {
+        if (fitness > bestFitness + IMPROVEMENT_EPSILON) {
+            bestFitness = fitness;
+            lastImprovedGeneration = generations;
+        }
+        if (targetFitness != null && bestFitness >= targetFitness) {
+            return StopReason.TARGET_FITNESS;
+        }
+        if (generations >= maxGenerations) {
+            return StopReason.MAX_GENERATIONS;
+        }
+        if (isTimeUp()) {
+            return StopReason.TIME_BUDGET;
+        }
+        if (stallGenerations > 0 && generations - lastImprovedGeneration >= stallGenerations) {
+            return StopReason.STALLED;
+        }
+        return null;
+    }
+
+    // 是否已达到运行时间上限，岛屿内部的每一代也会检查
+    public boolean isTimeUp() {
+        return System.currentTimeMillis() >= deadline;
+    }
+
+    // 距离运行时间上限的剩余毫秒数，未设置上限时为 Long.MAX_VALUE
+    public long remainingMillis() {
+        return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(0, deadline - System.currentTimeMillis());
+    }
+}
@@ -3,14 +3,18 @@ package com.example.back_end.util;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.example.back_end.repository.TaskRepository;
+
 import lombok.Data;
 
 @Data
 public class Task extends com.example.back_end.entity.Task {
 
     private List<Integer> weeks; // 课程安排的周次
+    private int weekMask; // 周次对应的周掩码，第 w 位为 1 表示第 w 周上课
     private int HoursOfWeek;
     private int durationTime; // 连续节次
+    private int index; // 任务在本次排课任务列表中的下标，用于按下标访问预计算的数据
     // 初始化开始周、结束周、连续节次、连排节次
 
     private void initialize() {
@@ -32,6 +36,7 @@ public class Task extends com.example.back_end.entity.Task {
             for(int i = startWeek; i <= endWeek; i++) {
                 this.weeks.add(i);
             }
+            this.weekMask = Classroom.toWeekMask(this.weeks);
         }
     }
 
@@ -65,6 +70,23 @@ public class Task extends com.example.back_end.entity.Task {
         initialize();
     }
 
+    // 由排课所需字段的投影构造，字段与上面的构造函数相同
+    public Task(TaskRepository.SolverView task) {
+        setSchedulePriority(task.getSchedulePriority());
+        setDesignatedClassroom(task.getDesignatedClassroom());
+        setDesignatedClassroomType(task.getDesignatedClassroomType());
+        setConsecutiveClassSlots(task.getConsecutiveClassSlots());
+        setTeachingClassSize(task.getTeachingClassSize());
+        setCourseWeeklyScheduleHours(task.getCourseWeeklyScheduleHours());
+        setCourseId(task.getCourseId());
+        setCourseName(task.getCourseName());
+        setTeacherEmployeeId(task.getTeacherEmployeeId());
+        setTeachingClassComposition(task.getTeachingClassComposition());
+        setTeachingClassId(task.getTeachingClassId());
+        setCourseNature(task.getCourseNature());
+        initialize();
+    }
+
     // 判断该任务是否可以安排在一个教室
     public boolean isValid(Classroom classroom) {
         // 检查安排是否有效（例如：教室容量足够、时间段无冲突等）
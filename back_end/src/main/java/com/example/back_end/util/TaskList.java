@@ -1,20 +1,46 @@
 package com.example.back_end.util;
 
-import java.util.List;
+import java.util.Arrays;
 
 import lombok.Data;
 
+/*
+ * 遗传算法中的一个个体
+ * 任务顺序为稠密任务下标（Task.getIndex()）的排列，解码结果以基本类型数组保存；
+ * 完整的 Schedule / Assignment 只在需要时由 GreedyDecoder.toSchedule 生成。
+ */
 @Data
 public class TaskList {
-    private List<Task> tasks;
-    private Schedule schedule;
+    private int[] genes; // 排课顺序，genes[i] 为第 i 个排课的任务下标
     private double fitness;
-    public TaskList() {
-        this.tasks = null;
+    private int[] rooms; // rooms[i] 为第 i 个位置的任务排入的教室下标，未排入为 -1
+    private long[] slotStarts; // slotStarts[i] 的第 s 位为 1 表示第 i 个位置的任务在周内时间段 s 开始上课
+    private DecodeCheckpoints checkpoints; // 解码检查点，子代据此从第一个不同的位置继续解码
+    private long fingerprint; // 任务顺序指纹，用于查找适应度缓存
+
+    public TaskList(int[] genes) {
+        this.genes = genes;
+        this.fingerprint = TaskOrderFingerprint.of(genes);
+    }
+
+    public TaskList(int[] genes, long fingerprint) {
+        this.genes = genes;
+        this.fingerprint = fingerprint;
+    }
+
+    public int size() {
+        return genes.length;
     }
 
-    public TaskList(List<Task> tasks) {
-        this.tasks = tasks;
+    // 已排入教室的任务数
+    public int countPlaced() {
+        int placed = 0;
+        for (int room : rooms) {
+            if (room >= 0) {
+                placed++;
+            }
+        }
+        return placed;
     }
 
     public boolean equals(Object obj) {
@@ -25,19 +51,10 @@ public class TaskList {
             return false;
         }
         TaskList other = (TaskList) obj;
-        if (tasks == null) {
-            if (other.tasks != null) {
-                return false;
-            }
-        } else if (!tasks.equals(other.tasks)) {
-            return false;
-        }
-        return true;
+        return Arrays.equals(genes, other.genes);
     }
 
     public int hashCode() {
-        int result = 1;
-        result = 31 * result + (tasks == null ? 0 : tasks.hashCode());
-        return result;
+        return Arrays.hashCode(genes);
     }
 }
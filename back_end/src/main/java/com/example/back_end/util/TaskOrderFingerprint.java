@@ -0,0 +1,43 @@
+package com.example.back_end.util;
+
+/*
+ * 任务顺序的 Zobrist 风格指纹
+ * 指纹为每个 (位置, 任务下标) 对应的随机数的异或，调整某一区间的任务顺序时，
+ * 只需异或掉该区间原有的项，再异或上新的项即可增量更新。
+ */
+public final class TaskOrderFingerprint {
+
+    private TaskOrderFingerprint() {
+    }
+
+    // 计算整个任务顺序的指纹
+    public static long of(int[] genes) {
+        return toggle(0L, genes, 0, genes.length - 1);
+    }
+
+    // 异或上（或异或掉）区间 [from, to] 内各位置的项，同一区间调用两次会相互抵消
+    public static long toggle(long fingerprint, int[] genes, int from, int to) {
+        for (int position = from; position <= to; position++) {
+            fingerprint ^= term(position, genes[position]);
+        }
+        return fingerprint;
+    }
+
+    // 由 before 变为 after 时更新指纹，只处理任务不同的位置
+    public static long update(long fingerprint, int[] before, int[] after) {
+        for (int position = 0; position < after.length; position++) {
+            if (before[position] != after[position]) {
+                fingerprint ^= term(position, before[position]) ^ term(position, after[position]);
+            }
+        }
+        return fingerprint;
+    }
+
+    private static long term(int position, int taskIndex) {
+        // splitmix64 混淆，代替预先生成的随机数表，任务数很大时也不占用额外内存
+        long z = ((long) position << 32 | taskIndex) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
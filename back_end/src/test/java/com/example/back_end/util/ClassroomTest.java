@@ -0,0 +1,63 @@
+package com.example.back_end.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * 空闲连排索引增量更新后的查询结果必须与按占用情况逐个时间段检查的结果相同
+ */
+class ClassroomTest {
+
+    private static final int WEEK_MASKS = 16;
+    private static final int SLOTS = Schedule.slotsOfWeek;
+
+    @Test
+    void freeStartsMatchOccupancyForEveryWeekMask() {
+        Random random = new Random(21);
+        int[] weekMasks = new int[WEEK_MASKS];
+        for (int k = 0; k < WEEK_MASKS; k++) {
+            int first = random.nextInt(Schedule.weeks);
+            int last = first + random.nextInt(Schedule.weeks - first);
+            weekMasks[k] = (int) ((1L << (last + 1)) - (1L << first)); // 与任务的连续周次相同的周掩码
+        }
+        for (int capacity : new int[] { 0, 4, WEEK_MASKS }) { // 0 表示不调用 indexWeekMasks，使用默认容量
+            Classroom classroom = new Classroom(new com.example.back_end.entity.Classroom());
+            if (capacity > 0) {
+                classroom.indexWeekMasks(capacity);
+            }
+            List<int[]> occupied = new ArrayList<>(); // {周掩码, 开始时间段, 结束时间段}
+            for (int step = 0; step < 2000; step++) {
+                int weekMask = weekMasks[random.nextInt(WEEK_MASKS)];
+                int length = 1 + random.nextInt(3);
+                if (!occupied.isEmpty() && random.nextInt(3) == 0) {
+                    int[] range = occupied.remove(random.nextInt(occupied.size()));
+                    classroom.releaseRange(range[0], range[1], range[2]);
+                } else {
+                    int start = random.nextInt(SLOTS - length + 1);
+                    if (classroom.isRangeAvailable(weekMask, start, start + length - 1)) {
+                        classroom.occupyRange(weekMask, start, start + length - 1);
+                        occupied.add(new int[] { weekMask, start, start + length - 1 });
+                    }
+                }
+                long validStarts = (1L << (SLOTS - length + 1)) - 1; // freeStarts 不排除超出一周的开始时间段
+                assertEquals(expectedFreeStarts(classroom, weekMask, length),
+                        classroom.freeStarts(weekMask, length) & validStarts, "capacity " + capacity + ", step " + step);
+            }
+        }
+    }
+
+    private static long expectedFreeStarts(Classroom classroom, int weekMask, int length) {
+        long expected = 0L;
+        for (int start = 0; start + length <= SLOTS; start++) {
+            if (classroom.isRangeAvailable(weekMask, start, start + length - 1)) {
+                expected |= 1L << start;
+            }
+        }
+        return expected;
+    }
+}
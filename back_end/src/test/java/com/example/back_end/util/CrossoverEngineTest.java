@@ -0,0 +1,79 @@
+package com.example.back_end.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * 每种交叉算子的子代都必须是任务下标的排列，父代不被修改；
+ * 同一个引擎连续交叉多次（复用工作区）时结果仍然正确
+ */
+class CrossoverEngineTest {
+
+    @Test
+    void offspringIsPermutationForEveryOperator() {
+        for (CrossoverOperator operator : CrossoverOperator.values()) {
+            for (int size : new int[] { 1, 2, 3, 10, 257 }) {
+                CrossoverEngine engine = new CrossoverEngine(operator, size);
+                Random random = new Random(size);
+                for (int trial = 0; trial < 500; trial++) {
+                    int[] parent1 = SchedulingFixtures.randomGenes(size, random);
+                    int[] parent2 = SchedulingFixtures.randomGenes(size, random);
+                    int[] parent1Copy = parent1.clone();
+                    int[] parent2Copy = parent2.clone();
+                    int[] child = engine.crossover(parent1, parent2, random);
+
+                    assertPermutation(child, operator + ", size " + size);
+                    assertArrayEquals(parent1Copy, parent1, operator + " modified parent 1");
+                    assertArrayEquals(parent2Copy, parent2, operator + " modified parent 2");
+                }
+            }
+        }
+    }
+
+    @Test
+    void identicalParentsGiveSameOrder() {
+        for (CrossoverOperator operator : CrossoverOperator.values()) {
+            CrossoverEngine engine = new CrossoverEngine(operator, 50);
+            Random random = new Random(7);
+            for (int trial = 0; trial < 100; trial++) {
+                int[] parent = SchedulingFixtures.randomGenes(50, random);
+                assertArrayEquals(parent, engine.crossover(parent, parent.clone(), random), operator.toString());
+            }
+        }
+    }
+
+    @Test
+    void cycleKeepsEveryTaskAtAParentPosition() {
+        CrossoverEngine engine = new CrossoverEngine(CrossoverOperator.CYCLE, 100);
+        Random random = new Random(8);
+        for (int trial = 0; trial < 500; trial++) {
+            int[] parent1 = SchedulingFixtures.randomGenes(100, random);
+            int[] parent2 = SchedulingFixtures.randomGenes(100, random);
+            int[] child = engine.crossover(parent1, parent2, random);
+            for (int i = 0; i < child.length; i++) {
+                assertTrue(child[i] == parent1[i] || child[i] == parent2[i], "position " + i);
+            }
+        }
+    }
+
+    @Test
+    void rejectsParentsOfWrongSize() {
+        CrossoverEngine engine = new CrossoverEngine(CrossoverOperator.ORDER, 5);
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.crossover(new int[] { 0, 1, 2 }, new int[] { 2, 1, 0 }, new Random(9)));
+    }
+
+    private static void assertPermutation(int[] genes, String context) {
+        int[] sorted = genes.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            assertTrue(sorted[i] == i, context + ": not a permutation " + Arrays.toString(genes));
+        }
+    }
+}
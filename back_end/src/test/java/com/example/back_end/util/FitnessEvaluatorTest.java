@@ -0,0 +1,102 @@
+package com.example.back_end.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.back_end.entity.PersonalizedRequest;
+
+/*
+ * 增量适应度经过任意一串移动后，必须与在同一安排上重新计算的结果一致
+ * 排入数、满足的请求数与空闲节次数完全相同，教室稳定性按增量累加，允许极小的浮点误差
+ */
+class FitnessEvaluatorTest {
+
+    private static final int TASKS = 120;
+    private static final int ROOMS = 10;
+    private static final double EPSILON = 1e-9;
+    private static final int DAYS = Schedule.slotsOfWeek / Schedule.slotsOfDay;
+
+    @Test
+    void incrementalMovesMatchEvaluate() {
+        ProblemSnapshot snapshot = SchedulingFixtures.randomProblem(4, TASKS, ROOMS);
+        Random random = new Random(18);
+        FitnessEvaluator evaluator = new FitnessEvaluator(snapshot.getTasks(), snapshot.getClassrooms(),
+                randomPreferences(random), new FitnessWeights(1.0, 1.0, 0.1, 0.05));
+
+        int[] genes = SchedulingFixtures.randomGenes(TASKS, random);
+        int[] positionOf = new int[TASKS];
+        int[] rooms = new int[TASKS];
+        long[] starts = new long[TASKS];
+        for (int position = 0; position < TASKS; position++) {
+            positionOf[genes[position]] = position;
+            rooms[position] = random.nextInt(ROOMS + 1) - 1;
+            starts[position] = rooms[position] < 0 ? 0L
+                    : randomStarts(snapshot.getTasks().get(genes[position]), random);
+        }
+        FitnessEvaluator.Incremental incremental = evaluator.newIncremental(genes, rooms, starts);
+        assertSameComponents(evaluator.evaluateComponents(genes, rooms, starts), incremental);
+
+        for (int step = 0; step < 5000; step++) {
+            int task = random.nextInt(TASKS);
+            int position = positionOf[task];
+            int newRoom;
+            long newStarts;
+            int kind = random.nextInt(4);
+            if (kind == 0) {
+                newRoom = -1; // 取消排入
+                newStarts = 0L;
+            } else if (kind == 1 && rooms[position] >= 0) {
+                newRoom = random.nextInt(ROOMS); // 只换教室
+                newStarts = starts[position];
+            } else {
+                newRoom = random.nextInt(ROOMS);
+                newStarts = randomStarts(snapshot.getTasks().get(task), random);
+            }
+            double before = evaluator.evaluate(genes, rooms, starts);
+            double delta = incremental.move(task, rooms[position], starts[position], newRoom, newStarts);
+            rooms[position] = newRoom;
+            starts[position] = newStarts;
+
+            assertEquals(evaluator.evaluate(genes, rooms, starts) - before, delta, EPSILON, "step " + step);
+            assertSameComponents(evaluator.evaluateComponents(genes, rooms, starts), incremental);
+        }
+    }
+
+    private static void assertSameComponents(FitnessBreakdown expected, FitnessEvaluator.Incremental incremental) {
+        FitnessBreakdown actual = incremental.getBreakdown();
+        assertEquals(expected.getPlaced(), actual.getPlaced());
+        assertEquals(expected.getSatisfiedRequests(), actual.getSatisfiedRequests());
+        assertEquals(expected.getGaps(), actual.getGaps());
+        assertEquals(expected.getRoomStability(), actual.getRoomStability(), EPSILON);
+        assertEquals(expected.getScore(), incremental.getScore(), EPSILON);
+    }
+
+    // 每天最多一次课的随机开始时间段
+    private static long randomStarts(Task task, Random random) {
+        int length = task.getDurationTime();
+        int lessons = Math.min(DAYS, task.getHoursOfWeek() / length);
+        long starts = 0L;
+        for (int day : random.ints(0, DAYS).distinct().limit(lessons).toArray()) {
+            starts |= 1L << (day * Schedule.slotsOfDay + random.nextInt(Schedule.slotsOfDay - length + 1));
+        }
+        return starts;
+    }
+
+    // 部分任务有若干个请求，同一时间段可能被多个请求偏好
+    private static PreferenceMatrix randomPreferences(Random random) {
+        List<PersonalizedRequest> requests = new ArrayList<>();
+        for (int i = 0; i < TASKS * 2; i++) {
+            PersonalizedRequest request = new PersonalizedRequest();
+            request.setTaskId("TC" + random.nextInt(TASKS / 2));
+            request.setPreferDay(String.valueOf(1 + random.nextInt(DAYS)));
+            request.setPreferPeriod(random.nextBoolean() ? "上午" : "下午");
+            requests.add(request);
+        }
+        return PreferenceMatrix.of(requests);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.back_end.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * 从父代检查点继续解码的结果必须与从头解码相同
+ */
+class GreedyDecoderTest {
+
+    private static final int TASKS = 200;
+    private static final int ROOMS = 12;
+
+    @Test
+    void resumeFromParentMatchesFullDecode() {
+        ProblemSnapshot snapshot = SchedulingFixtures.randomProblem(1, TASKS, ROOMS);
+        for (RoomSelection roomSelection : RoomSelection.values()) {
+            for (int interval : new int[] { 1, 7, 64, TASKS + 1 }) {
+                GreedyDecoder decoder = new GreedyDecoder(snapshot.getClassrooms(), snapshot.getTasks(), interval,
+                        PreferenceMatrix.EMPTY, FitnessWeights.DEFAULT, roomSelection);
+                Random random = new Random(interval);
+                for (int trial = 0; trial < 50; trial++) {
+                    TaskList parent = new TaskList(SchedulingFixtures.randomGenes(TASKS, random));
+                    decoder.decode(parent);
+                    int[] childGenes = parent.getGenes().clone();
+                    int from = random.nextInt(TASKS);
+                    int to = random.nextInt(TASKS);
+                    int gene = childGenes[from];
+                    childGenes[from] = childGenes[to];
+                    childGenes[to] = gene;
+                    int prefix = commonPrefix(childGenes, parent.getGenes());
+
+                    TaskList resumed = new TaskList(childGenes.clone());
+                    decoder.decode(resumed, parent, prefix);
+                    TaskList full = new TaskList(childGenes.clone());
+                    decoder.decode(full);
+
+                    String context = roomSelection + ", interval " + interval + ", prefix " + prefix;
+                    assertArrayEquals(full.getRooms(), resumed.getRooms(), context);
+                    assertArrayEquals(full.getSlotStarts(), resumed.getSlotStarts(), context);
+                    assertEquals(full.getFitness(), resumed.getFitness(), context);
+                }
+            }
+        }
+    }
+
+    @Test
+    void resumeFromAnyShorterPrefixMatchesFullDecode() {
+        ProblemSnapshot snapshot = SchedulingFixtures.randomProblem(2, TASKS, ROOMS);
+        GreedyDecoder decoder = new GreedyDecoder(snapshot.getClassrooms(), snapshot.getTasks(), 16);
+        Random random = new Random(2);
+        TaskList parent = new TaskList(SchedulingFixtures.randomGenes(TASKS, random));
+        decoder.decode(parent);
+        // 子代只有最后一段被打乱，任何不超过公共前缀的 commonPrefix 都必须得到相同的结果
+        int[] childGenes = parent.getGenes().clone();
+        int tail = TASKS - 40;
+        int[] shuffled = SchedulingFixtures.randomGenes(40, random);
+        int[] original = Arrays.copyOfRange(childGenes, tail, TASKS);
+        for (int i = 0; i < 40; i++) {
+            childGenes[tail + i] = original[shuffled[i]];
+        }
+        TaskList full = new TaskList(childGenes.clone());
+        decoder.decode(full);
+        assertTrue(full.countPlaced() < TASKS, "fixture should leave some tasks unplaced");
+        for (int prefix = 0; prefix <= commonPrefix(childGenes, parent.getGenes()); prefix += 5) {
+            TaskList resumed = new TaskList(childGenes.clone());
+            decoder.decode(resumed, parent, prefix);
+            assertArrayEquals(full.getRooms(), resumed.getRooms(), "prefix " + prefix);
+            assertArrayEquals(full.getSlotStarts(), resumed.getSlotStarts(), "prefix " + prefix);
+            assertEquals(full.getFitness(), resumed.getFitness(), "prefix " + prefix);
+        }
+    }
+
+    @Test
+    void identicalChildReusesParentResult() {
+        ProblemSnapshot snapshot = SchedulingFixtures.randomProblem(3, TASKS, ROOMS);
+        GreedyDecoder decoder = new GreedyDecoder(snapshot.getClassrooms(), snapshot.getTasks(), 32);
+        TaskList parent = new TaskList(SchedulingFixtures.randomGenes(TASKS, new Random(3)));
+        decoder.decode(parent);
+        TaskList child = new TaskList(parent.getGenes().clone());
+        decoder.decode(child, parent, TASKS);
+        assertArrayEquals(parent.getRooms(), child.getRooms());
+        assertArrayEquals(parent.getSlotStarts(), child.getSlotStarts());
+        assertEquals(parent.getFitness(), child.getFitness());
+    }
+
+    private static int commonPrefix(int[] a, int[] b) {
+        int i = 0;
+        while (i < a.length && a[i] == b[i]) {
+            i++;
+        }
+        return i;
+    }
+}
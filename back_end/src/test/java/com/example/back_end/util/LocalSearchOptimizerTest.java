@@ -0,0 +1,53 @@
+package com.example.back_end.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * 退火温度随适应度权重缩放：权重整体放大时局部搜索做出完全相同的移动
+ */
+class LocalSearchOptimizerTest {
+
+    private static final int TASKS = 150;
+    private static final int ROOMS = 8;
+
+    @Test
+    void temperatureScalesWithMoveWeights() {
+        assertEquals(1.0, LocalSearchOptimizer.temperatureScale(FitnessWeights.DEFAULT), 1e-12);
+        assertEquals(10.0, LocalSearchOptimizer.temperatureScale(new FitnessWeights(10.0, 10.0, 1.0, 0.0)), 1e-12);
+        // 排入权重不影响局部搜索中的适应度变化
+        assertEquals(1.0, LocalSearchOptimizer.temperatureScale(new FitnessWeights(100.0, 1.0, 0.1, 0.0)), 1e-12);
+        assertEquals(2.0, LocalSearchOptimizer.temperatureScale(new FitnessWeights(1.0, 1.0, 0.1, 1.1)), 1e-12);
+        assertEquals(1.0, LocalSearchOptimizer.temperatureScale(new FitnessWeights(1.0, 0.0, 0.0, 0.0)), 1e-12);
+    }
+
+    @Test
+    void scaledWeightsGiveSameSearch() {
+        ProblemSnapshot snapshot = SchedulingFixtures.randomProblem(3, TASKS, ROOMS);
+        FitnessWeights weights = new FitnessWeights(1.0, 1.0, 0.1, 0.05);
+        // 除以 2 的幂不引入舍入误差，每次移动的接受判断都相同；温度不缩放时会接受多得多的变差移动
+        FitnessWeights scaled = new FitnessWeights(1.0 / 16, 1.0 / 16, 0.1 / 16, 0.05 / 16);
+        TaskList result = search(snapshot, weights);
+        TaskList scaledResult = search(snapshot, scaled);
+
+        assertArrayEquals(result.getRooms(), scaledResult.getRooms());
+        assertArrayEquals(result.getSlotStarts(), scaledResult.getSlotStarts());
+        assertEquals(result.getFitness() / 16, scaledResult.getFitness(), 1e-9);
+    }
+
+    private TaskList search(ProblemSnapshot snapshot, FitnessWeights weights) {
+        GreedyDecoder decoder = new GreedyDecoder(snapshot.getClassrooms(), snapshot.getTasks(), 64,
+                PreferenceMatrix.EMPTY, weights, RoomSelection.FIRST_FIT);
+        TaskList start = new TaskList(SchedulingFixtures.randomGenes(TASKS, new Random(5)));
+        decoder.decode(start);
+        TaskList result = new LocalSearchOptimizer(decoder).optimize(start, new long[] { 7L }, 20000,
+                Long.MAX_VALUE / 2, null, () -> false);
+        assertTrue(result.getFitness() >= start.getFitness());
+        return result;
+    }
+}
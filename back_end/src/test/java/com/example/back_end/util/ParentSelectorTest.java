@@ -0,0 +1,157 @@
+package com.example.back_end.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/*
+ * 累计权重表上的二分查找必须与逐个累加权重的线性查找选中同一个候选；
+ * 轮盘赌在适应度为负时按种群最低适应度平移权重
+ */
+class ParentSelectorTest {
+
+    @Test
+    void rouletteBinarySearchMatchesLinearScan() {
+        Random random = new Random(10);
+        for (int trial = 0; trial < 200; trial++) {
+            List<TaskList> population = population(1 + random.nextInt(60), random);
+            ParentSelector selector = new ParentSelector(population, SelectionStrategy.ROULETTE, 3);
+            double[] weights = population.stream().mapToDouble(TaskList::getFitness).toArray();
+            assertMatchesLinearScan(selector, weights, random);
+        }
+    }
+
+    @Test
+    void negativeFitnessIsShiftedByPopulationMinimum() {
+        Random random = new Random(13);
+        for (int trial = 0; trial < 200; trial++) {
+            List<TaskList> population = population(1 + random.nextInt(60), random);
+            for (TaskList taskList : population) {
+                taskList.setFitness(taskList.getFitness() - 250); // 紧凑度惩罚使部分适应度为负
+            }
+            ParentSelector selector = new ParentSelector(population, SelectionStrategy.ROULETTE, 3);
+            double min = population.stream().mapToDouble(TaskList::getFitness).min().getAsDouble();
+            double[] weights = population.stream().mapToDouble(taskList -> taskList.getFitness() - Math.min(min, 0))
+                    .toArray();
+            assertMatchesLinearScan(selector, weights, random);
+        }
+    }
+
+    @Test
+    void worstNegativeIndividualIsNeverSelected() {
+        List<TaskList> population = population(new double[] { -3, -1, -3, 2 });
+        ParentSelector selector = new ParentSelector(population, SelectionStrategy.ROULETTE, 3);
+        // 平移后的权重为 0, 2, 0, 5
+        int[] counts = new int[population.size()];
+        Random random = new Random(14);
+        for (int i = 0; i < 70000; i++) {
+            counts[population.indexOf(selector.select(random))]++;
+        }
+        assertEquals(0, counts[0]);
+        assertEquals(0, counts[2]);
+        assertEquals(20000, counts[1], 1000);
+        assertEquals(50000, counts[3], 1000);
+    }
+
+    @Test
+    void equalFitnessIsSelectedUniformly() {
+        for (double fitness : new double[] { 0, -4 }) {
+            List<TaskList> population = population(new double[] { fitness, fitness, fitness, fitness });
+            ParentSelector selector = new ParentSelector(population, SelectionStrategy.ROULETTE, 3);
+            int[] counts = new int[population.size()];
+            Random random = new Random(15);
+            for (int i = 0; i < 40000; i++) {
+                counts[population.indexOf(selector.select(random))]++;
+            }
+            for (int count : counts) {
+                assertEquals(10000, count, 500);
+            }
+        }
+    }
+
+    @Test
+    void rankBinarySearchMatchesLinearScan() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 200; trial++) {
+            List<TaskList> population = population(1 + random.nextInt(60), random);
+            ParentSelector selector = new ParentSelector(population, SelectionStrategy.RANK, 3);
+            double[] weights = new double[population.size()];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = i + 1;
+            }
+            assertMatchesLinearScan(selector, weights, random);
+        }
+    }
+
+    @Test
+    void zeroWeightsAreNeverSelected() {
+        List<TaskList> population = population(new double[] { 0, 0, 5, 0, 0, 3, 0 });
+        ParentSelector selector = new ParentSelector(population, SelectionStrategy.ROULETTE, 3);
+        assertEquals(2, selector.firstAtLeast(1e-9));
+        assertEquals(2, selector.firstAtLeast(5.0));
+        assertEquals(5, selector.firstAtLeast(5.0 + 1e-9));
+        assertEquals(5, selector.firstAtLeast(8.0));
+        Random random = new Random(12);
+        for (int i = 0; i < 1000; i++) {
+            TaskList selected = selector.select(random);
+            assertTrue(selected.getFitness() > 0, "selected an individual with zero weight");
+        }
+    }
+
+    // 对随机值以及恰好等于各累计权重的值比较两种查找
+    private static void assertMatchesLinearScan(ParentSelector selector, double[] weights, Random random) {
+        double total = 0;
+        List<Double> values = new ArrayList<>();
+        for (double weight : weights) {
+            total += weight;
+            values.add(total);
+        }
+        for (int i = 0; i < 50; i++) {
+            values.add(random.nextDouble() * total);
+        }
+        values.add(0.0);
+        for (double value : values) {
+            assertEquals(linearScan(weights, value), selector.firstAtLeast(value), "value " + value);
+        }
+    }
+
+    // 原实现：逐个累加权重，返回第一个累计权重不小于 value 的位置
+    private static int linearScan(double[] weights, double value) {
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            if (sum >= value) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    // 给定适应度的种群，每个个体是不同的对象
+    private static List<TaskList> population(double[] fitness) {
+        List<TaskList> population = new ArrayList<>();
+        for (int i = 0; i < fitness.length; i++) {
+            TaskList taskList = new TaskList(new int[] { i });
+            taskList.setFitness(fitness[i]);
+            population.add(taskList);
+        }
+        return population;
+    }
+
+    // 随机适应度的种群，约四分之一的个体适应度为 0，部分个体适应度相同
+    private static List<TaskList> population(int size, Random random) {
+        List<TaskList> population = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            TaskList taskList = new TaskList(new int[] { i });
+            int kind = random.nextInt(4);
+            taskList.setFitness(kind == 0 ? 0 : kind == 1 ? 100 : random.nextDouble() * 400);
+            population.add(taskList);
+        }
+        return population;
+    }
+}
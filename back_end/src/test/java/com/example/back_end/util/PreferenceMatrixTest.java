@@ -0,0 +1,141 @@
+package com.example.back_end.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.back_end.entity.PersonalizedRequest;
+import com.example.back_end.repository.PersonalizedRequestRepository;
+
+/*
+ * 偏好矩阵统计的满足请求数必须与原规则相同：逐条检查请求，看该任务在请求的星期里第一次课的开始节次
+ * 是否在请求的时段（上午第 1-4 节、下午第 5-8 节）。解码每天最多排一次课，测试中的安排也遵守这一点。
+ */
+class PreferenceMatrixTest {
+
+    private static final int TASKS = 40;
+    private static final int DAYS = Schedule.slotsOfWeek / Schedule.slotsOfDay;
+    // 包括无法识别的星期与时段，这些请求永远不会被满足
+    private static final String[] PREFER_DAYS = { "1", "2", "3", "4", "5", "6", "0", "周一", null };
+    private static final String[] PREFER_PERIODS = { "上午", "下午", "上午", "下午", "晚上", null };
+
+    @Test
+    void satisfiedRequestsMatchFirstLessonRule() {
+        Random random = new Random(19);
+        for (int requestCount : new int[] { 0, 1, 30, 300, 5000 }) {
+            List<PersonalizedRequest> requests = randomRequests(requestCount, random);
+            PreferenceMatrix matrix = PreferenceMatrix.of(requests);
+            long[][] planes = matrix.planesFor(tasks());
+            for (int trial = 0; trial < 200; trial++) {
+                int task = random.nextInt(TASKS);
+                long starts = randomStarts(random);
+                assertEquals(legacySatisfied(requests, "TC" + task, starts),
+                        PreferenceMatrix.satisfied(planes[task], starts),
+                        requestCount + " requests, starts " + starts);
+            }
+        }
+    }
+
+    @Test
+    void aggregatedCountsMatchIndividualRequests() {
+        Random random = new Random(20);
+        List<PersonalizedRequest> requests = randomRequests(3000, random);
+        Map<List<String>, Long> counts = new HashMap<>();
+        for (PersonalizedRequest request : requests) {
+            counts.merge(Arrays.asList(request.getTaskId(), request.getPreferDay(), request.getPreferPeriod()),
+                    1L, Long::sum);
+        }
+        List<PersonalizedRequestRepository.PreferenceCount> rows = new ArrayList<>();
+        counts.forEach((key, count) -> rows.add(new PersonalizedRequestRepository.PreferenceCount() {
+            @Override
+            public String getTaskId() {
+                return key.get(0);
+            }
+
+            @Override
+            public String getPreferDay() {
+                return key.get(1);
+            }
+
+            @Override
+            public String getPreferPeriod() {
+                return key.get(2);
+            }
+
+            @Override
+            public Long getRequestCount() {
+                return count;
+            }
+        }));
+
+        PreferenceMatrix individual = PreferenceMatrix.of(requests);
+        PreferenceMatrix aggregated = PreferenceMatrix.ofCounts(rows);
+        assertEquals(individual.getRequestCount(), aggregated.getRequestCount());
+        assertEquals(individual.getTaskCount(), aggregated.getTaskCount());
+        long[][] individualPlanes = individual.planesFor(tasks());
+        long[][] aggregatedPlanes = aggregated.planesFor(tasks());
+        for (int trial = 0; trial < 500; trial++) {
+            int task = random.nextInt(TASKS);
+            long starts = randomStarts(random);
+            assertEquals(PreferenceMatrix.satisfied(individualPlanes[task], starts),
+                    PreferenceMatrix.satisfied(aggregatedPlanes[task], starts));
+        }
+    }
+
+    // 原规则：找到任务在请求的星期里的第一次课，按其开始节次判断上午或下午
+    private static int legacySatisfied(List<PersonalizedRequest> requests, String teachingClassId, long starts) {
+        int satisfied = 0;
+        for (PersonalizedRequest request : requests) {
+            if (!teachingClassId.equals(request.getTaskId())) {
+                continue;
+            }
+            for (long rest = starts; rest != 0; rest &= rest - 1) {
+                int slot = Long.numberOfTrailingZeros(rest);
+                if (String.valueOf(slot / Schedule.slotsOfDay + 1).equals(request.getPreferDay())) {
+                    int start = slot % Schedule.slotsOfDay + 1;
+                    if ("上午".equals(request.getPreferPeriod()) ? start <= 4
+                            : "下午".equals(request.getPreferPeriod()) && start >= 5) {
+                        satisfied++;
+                    }
+                    break;
+                }
+            }
+        }
+        return satisfied;
+    }
+
+    // 请求集中在前一半任务上，同一时间段常有多个请求，使矩阵使用多个二进制位
+    private static List<PersonalizedRequest> randomRequests(int count, Random random) {
+        List<PersonalizedRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PersonalizedRequest request = new PersonalizedRequest();
+            request.setTaskId(random.nextInt(10) == 0 ? null : "TC" + random.nextInt(TASKS / 2));
+            request.setPreferDay(PREFER_DAYS[random.nextInt(PREFER_DAYS.length)]);
+            request.setPreferPeriod(PREFER_PERIODS[random.nextInt(PREFER_PERIODS.length)]);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    // 每天最多一次课的随机开始时间段
+    private static long randomStarts(Random random) {
+        long starts = 0L;
+        for (int day = 0; day < DAYS; day++) {
+            if (random.nextInt(3) == 0) {
+                starts |= 1L << (day * Schedule.slotsOfDay + random.nextInt(Schedule.slotsOfDay - 1));
+            }
+        }
+        return starts;
+    }
+
+    private static List<Task> tasks() {
+        return SchedulingFixtures.randomProblem(0, TASKS, 1).getTasks();
+    }
+}
@@ -0,0 +1,393 @@
+package com.example.back_end.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.example.back_end.entity.Assignment;
+
+/*
+ * ScheduleWriter 的差异写入：用内存中的 schedule_assignment 与 schedule_publication 代替数据库，
+ * 检查每个版本的新增、修改、删除与未变化的行数，旧行在新版本关闭，超出保留版本数的行被清理，
+ * 单个教学班的修改，以及旧版 assignment 表的迁移
+ */
+class ScheduleWriterTest {
+
+    private InMemoryJdbcTemplate jdbcTemplate;
+    private ScheduleWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new InMemoryJdbcTemplate();
+        writer = new ScheduleWriter(jdbcTemplate, 2);
+    }
+
+    @Test
+    void firstWriteInsertsEveryRow() {
+        ScheduleWriteResult result = writer.write(List.of(row("A", "R1", "1:1-2"), row("B", "R2", "2:1-2")));
+
+        assertEquals(1, result.getVersion());
+        assertEquals(2, result.getInserted());
+        assertEquals(0, result.getUpdated() + result.getDeleted() + result.getUnchanged() + result.getPurged());
+        assertEquals(2, result.getRowsWritten());
+        assertEquals(1L, (long) jdbcTemplate.currentVersion);
+        assertEquals(Map.of("A", "R1", "B", "R2"), jdbcTemplate.roomsAt(1));
+    }
+
+    @Test
+    void secondWriteOnlyTouchesChangedRows() {
+        writer.write(List.of(row("A", "R1", "1:1-2"), row("B", "R2", "2:1-2"), row("C", "R3", "3:1-2")));
+        int statementsBefore = jdbcTemplate.rowsTouched;
+
+        // A 不变，B 换教室，C 删除，D 新增
+        ScheduleWriteResult result = writer.write(List.of(row("A", "R1", "1:1-2"), row("B", "R4", "2:1-2"),
+                row("D", "R5", "4:1-2")));
+
+        assertEquals(2, result.getVersion());
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getDeleted());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(0, result.getPurged());
+        // 新增 1 行，修改关闭 1 行并插入 1 行，删除关闭 1 行
+        assertEquals(4, result.getRowsWritten());
+        assertEquals(result.getRowsWritten(), jdbcTemplate.rowsTouched - statementsBefore);
+
+        // 旧版本仍然完整可读，修改与删除的旧行在新版本关闭
+        assertEquals(Map.of("A", "R1", "B", "R2", "C", "R3"), jdbcTemplate.roomsAt(1));
+        assertEquals(Map.of("A", "R1", "B", "R4", "D", "R5"), jdbcTemplate.roomsAt(2));
+        assertEquals(2L, jdbcTemplate.find("B", "R2").validTo);
+        assertEquals(2L, jdbcTemplate.find("C", "R3").validTo);
+        assertEquals(ScheduleWriter.OPEN_VERSION, jdbcTemplate.find("B", "R4").validTo);
+        assertEquals(1L, jdbcTemplate.find("A", "R1").validFrom);
+    }
+
+    @Test
+    void slotOrWeekChangeIsAnUpdate() {
+        writer.write(List.of(row("A", "R1", "1:1-2")));
+        Assignment moved = row("A", "R1", "1:3-4");
+        ScheduleWriteResult result = writer.write(List.of(moved));
+        assertEquals(1, result.getUpdated());
+
+        Assignment weeks = row("A", "R1", "1:3-4");
+        weeks.setWeeks("1,2,3");
+        result = writer.write(List.of(weeks));
+        assertEquals(1, result.getUpdated());
+        assertEquals(0, result.getUnchanged());
+    }
+
+    @Test
+    void rowsOutsideRetainedVersionsArePurged() {
+        writer.write(List.of(row("A", "R1", "1:1-2"), row("B", "R2", "2:1-2")));
+        ScheduleWriteResult second = writer.write(List.of(row("A", "R3", "1:1-2"), row("B", "R2", "2:1-2")));
+        assertEquals(0, second.getPurged());
+
+        // 保留 2 个版本：版本 3 发布后，只在版本 1 中有效的行（A 在 R1）被清理
+        ScheduleWriteResult third = writer.write(List.of(row("A", "R4", "1:1-2"), row("B", "R2", "2:1-2")));
+        assertEquals(3, third.getVersion());
+        assertEquals(1, third.getPurged());
+        // A 修改：关闭 1 行并插入 1 行，再加上清理的 1 行
+        assertEquals(2 + 1, third.getRowsWritten());
+        assertEquals(Map.of("A", "R3", "B", "R2"), jdbcTemplate.roomsAt(2));
+        assertEquals(Map.of("A", "R4", "B", "R2"), jdbcTemplate.roomsAt(3));
+        assertEquals(3, jdbcTemplate.rows.size());
+    }
+
+    @Test
+    void emptyScheduleClosesEveryRow() {
+        writer.write(List.of(row("A", "R1", "1:1-2"), row("B", "R2", "2:1-2")));
+        ScheduleWriteResult result = writer.write(List.of());
+        assertEquals(2, result.getDeleted());
+        assertEquals(Map.of(), jdbcTemplate.roomsAt(2));
+    }
+
+    @Test
+    void publishChangeOnlyTouchesOneTeachingClass() {
+        writer.write(List.of(row("A", "R1", "1:1-2"), row("B", "R2", "2:1-2"), row("C", "R3", "3:1-2")));
+
+        ScheduleWriteResult moved = writer.publishChange("B", row("B", "R4", "2:1-2"));
+        assertEquals(2, moved.getVersion());
+        assertEquals(1, moved.getUpdated());
+        assertEquals(2, moved.getUnchanged());
+        assertEquals(2, moved.getRowsWritten());
+        assertEquals(Map.of("A", "R1", "B", "R4", "C", "R3"), jdbcTemplate.roomsAt(2));
+
+        ScheduleWriteResult added = writer.publishChange("D", row("D", "R5", "4:1-2"));
+        assertEquals(1, added.getInserted());
+        assertEquals(3, added.getUnchanged());
+
+        ScheduleWriteResult deleted = writer.publishChange("A", null);
+        assertEquals(1, deleted.getDeleted());
+        assertEquals(3, deleted.getUnchanged());
+        assertEquals(Map.of("B", "R4", "C", "R3", "D", "R5"), jdbcTemplate.roomsAt(4));
+        // 之前发布的版本不受影响
+        assertEquals(Map.of("A", "R1", "B", "R4", "C", "R3", "D", "R5"), jdbcTemplate.roomsAt(3));
+    }
+
+    @Test
+    void publishChangeKeepsConcurrentChanges() {
+        writer.write(List.of(row("A", "R1", "1:1-2"), row("B", "R2", "2:1-2")));
+        // 两次修改各自只比较自己的教学班，后一次不会用旧的排课覆盖前一次的修改
+        writer.publishChange("A", row("A", "R3", "1:1-2"));
+        writer.publishChange("B", row("B", "R4", "2:1-2"));
+        assertEquals(Map.of("A", "R3", "B", "R4"), jdbcTemplate.roomsAt(3));
+    }
+
+    @Test
+    void publishChangeRejectsMismatchedTeachingClass() {
+        assertThrows(IllegalArgumentException.class, () -> writer.publishChange("A", row("B", "R1", "1:1-2")));
+    }
+
+    @Test
+    void updateAppliesChangeToPublishedRows() {
+        writer.write(List.of(row("A", "R1", "1:1-2"), row("B", "R2", "2:1-2")));
+        writer.publishChange("C", row("C", "R3", "3:1-2"));
+
+        // change 读到的是锁定后当前发布的全部排课，包括之前单独修改的教学班
+        ScheduleWriteResult result = writer.update(published -> {
+            assertEquals(3, published.size());
+            List<Assignment> next = new ArrayList<>(published);
+            next.removeIf(assignment -> assignment.getTeachingClassId().equals("A"));
+            return next;
+        });
+        assertEquals(1, result.getDeleted());
+        assertEquals(2, result.getUnchanged());
+        assertEquals(Map.of("B", "R2", "C", "R3"), jdbcTemplate.roomsAt(3));
+    }
+
+    @Test
+    void legacyAssignmentsArePublishedAsFirstVersion() {
+        jdbcTemplate.legacy = List.of(row("A", "R1", "1:1-2"), row("B", "R2", "2:1-2"));
+
+        assertEquals(2, writer.migrateLegacyAssignments());
+        assertEquals(1L, (long) jdbcTemplate.currentVersion);
+        assertEquals(Map.of("A", "R1", "B", "R2"), jdbcTemplate.roomsAt(1));
+        assertEquals(ScheduleWriter.OPEN_VERSION, jdbcTemplate.find("A", "R1").validTo);
+
+        // 已经发布过版本后不再迁移，后续写入在迁移的版本上比较
+        assertEquals(0, writer.migrateLegacyAssignments());
+        ScheduleWriteResult result = writer.write(List.of(row("A", "R1", "1:1-2"), row("B", "R3", "2:1-2")));
+        assertEquals(2, result.getVersion());
+        assertEquals(1, result.getUnchanged());
+        assertEquals(1, result.getUpdated());
+    }
+
+    @Test
+    void migrationSkipsPublishedOrMissingLegacyTable() {
+        assertEquals(0, writer.migrateLegacyAssignments());
+        assertEquals(0L, (long) jdbcTemplate.currentVersion);
+
+        writer.write(List.of(row("A", "R1", "1:1-2")));
+        jdbcTemplate.legacy = List.of(row("B", "R2", "2:1-2"));
+        assertEquals(0, writer.migrateLegacyAssignments());
+        assertEquals(Map.of("A", "R1"), jdbcTemplate.roomsAt(1));
+    }
+
+    static Assignment row(String teachingClassId, String roomId, String slot) {
+        Assignment assignment = new Assignment();
+        assignment.setTeachingClassId(teachingClassId);
+        assignment.setCourseId("C-" + teachingClassId);
+        assignment.setCourseName("课程" + teachingClassId);
+        assignment.setClassRoomId(roomId);
+        assignment.setClassRoomName("教室" + roomId);
+        assignment.setSlot(slot);
+        assignment.setWeeks("1,2,3,4");
+        return assignment;
+    }
+
+    /*
+     * 只支持 ScheduleWriter 使用的语句：按语句常量识别操作，在内存中维护带版本区间的行与发布指针
+     */
+    static class InMemoryJdbcTemplate extends JdbcTemplate {
+
+        static class Row {
+            final Assignment assignment;
+            final long validFrom;
+            long validTo = ScheduleWriter.OPEN_VERSION;
+
+            Row(Assignment assignment, long validFrom) {
+                this.assignment = assignment;
+                this.validFrom = validFrom;
+            }
+        }
+
+        final List<Row> rows = new ArrayList<>();
+        List<Assignment> legacy; // 旧版 assignment 表中的行，为空表示旧表不存在
+        Long currentVersion; // 为空表示 schedule_publication 中还没有行
+        int rowsTouched; // 插入、关闭与删除的行数
+
+        // 版本 version 中有效的行：教学班ID -> 教室ID
+        Map<String, String> roomsAt(long version) {
+            Map<String, String> rooms = new TreeMap<>();
+            for (Row row : rows) {
+                if (row.validFrom <= version && row.validTo > version) {
+                    rooms.put(row.assignment.getTeachingClassId(), row.assignment.getClassRoomId());
+                }
+            }
+            return rooms;
+        }
+
+        Row find(String teachingClassId, String roomId) {
+            return rows.stream()
+                    .filter(row -> row.assignment.getTeachingClassId().equals(teachingClassId)
+                            && row.assignment.getClassRoomId().equals(roomId))
+                    .findFirst().orElseThrow();
+        }
+
+        private List<Row> openRows(String teachingClassId) {
+            List<Row> open = new ArrayList<>();
+            for (Row row : rows) {
+                if (row.validTo == ScheduleWriter.OPEN_VERSION
+                        && (teachingClassId == null || row.assignment.getTeachingClassId().equals(teachingClassId))) {
+                    open.add(row);
+                }
+            }
+            return open;
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            if (sql.equals(ScheduleWriter.INIT_PUBLICATION_SQL)) {
+                if (currentVersion != null) {
+                    return 0;
+                }
+                currentVersion = 0L;
+                return 1;
+            }
+            if (sql.equals(ScheduleWriter.PUBLISH_SQL)) {
+                currentVersion = (Long) args[0];
+                return 1;
+            }
+            if (sql.equals(ScheduleWriter.MIGRATE_SQL)) {
+                for (Assignment assignment : legacy) {
+                    rows.add(new Row(assignment, 1));
+                }
+                rowsTouched += legacy.size();
+                return legacy.size();
+            }
+            if (sql.equals(ScheduleWriter.PURGE_SQL)) {
+                int purged = 0;
+                for (Iterator<Row> it = rows.iterator(); it.hasNext();) {
+                    if (it.next().validTo <= (Long) args[0]) {
+                        it.remove();
+                        purged++;
+                    }
+                }
+                rowsTouched += purged;
+                return purged;
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            if (sql.equals(ScheduleWriter.LOCK_PUBLICATION_SQL)) {
+                return requiredType.cast(currentVersion);
+            }
+            if (sql.equals(ScheduleWriter.COUNT_OPEN_SQL)) {
+                return requiredType.cast(openRows(null).size());
+            }
+            if (sql.equals(ScheduleWriter.COUNT_ROWS_SQL)) {
+                return requiredType.cast(rows.size());
+            }
+            if (sql.equals(ScheduleWriter.LEGACY_TABLE_SQL)) {
+                return requiredType.cast(legacy == null ? 0 : 1);
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            return queryForObject(sql, requiredType);
+        }
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper) {
+            if (sql.equals(ScheduleWriter.SELECT_SQL)) {
+                return map(openRows(null), rowMapper);
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            if (sql.equals(ScheduleWriter.SELECT_ONE_SQL)) {
+                return map(openRows((String) args[0]), rowMapper);
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            int[] counts = new int[batchArgs.size()];
+            for (int i = 0; i < batchArgs.size(); i++) {
+                Object[] args = batchArgs.get(i);
+                if (sql.equals(ScheduleWriter.INSERT_SQL)) {
+                    Assignment assignment = new Assignment();
+                    assignment.setCourseId((String) args[0]);
+                    assignment.setCourseName((String) args[1]);
+                    assignment.setClassRoomId((String) args[2]);
+                    assignment.setClassRoomName((String) args[3]);
+                    assignment.setSlot((String) args[4]);
+                    assignment.setWeeks((String) args[5]);
+                    assignment.setTeachingClassId((String) args[6]);
+                    rows.add(new Row(assignment, (Long) args[7]));
+                    counts[i] = 1;
+                } else if (sql.equals(ScheduleWriter.CLOSE_SQL)) {
+                    for (Row row : openRows((String) args[1])) {
+                        row.validTo = (Long) args[0];
+                        counts[i]++;
+                    }
+                } else {
+                    throw new UnsupportedOperationException(sql);
+                }
+                rowsTouched += counts[i];
+            }
+            return counts;
+        }
+
+        static <T> List<T> map(List<Row> rows, RowMapper<T> rowMapper) {
+            List<T> result = new ArrayList<>();
+            for (Row row : rows) {
+                try {
+                    result.add(rowMapper.mapRow(resultSet(row.assignment), result.size()));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return result;
+        }
+
+        // 只实现 getString 的结果集，按列名返回行中的值
+        private static ResultSet resultSet(Assignment assignment) {
+            Map<String, String> columns = new TreeMap<>();
+            columns.put("teaching_class_id", assignment.getTeachingClassId());
+            columns.put("course_id", assignment.getCourseId());
+            columns.put("course_name", assignment.getCourseName());
+            columns.put("class_room_id", assignment.getClassRoomId());
+            columns.put("class_room_name", assignment.getClassRoomName());
+            columns.put("slot", assignment.getSlot());
+            columns.put("weeks", assignment.getWeeks());
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+                        if (method.getName().equals("getString") && args[0] instanceof String column) {
+                            return columns.get(column);
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
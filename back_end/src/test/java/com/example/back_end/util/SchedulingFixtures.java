@@ -0,0 +1,73 @@
+package com.example.back_end.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * 单元测试使用的随机排课输入
+ * 教室与任务的取值范围与示例数据相近：多媒体教室与机房两种类型，周次与每周课时取自示例数据中常见的几种，
+ * 教师与行政班从较小的集合中抽取，使任务之间存在教师与行政班冲突；教室数较少时会有任务无法排入。
+ */
+final class SchedulingFixtures {
+
+    private static final String[] ROOM_TYPES = { "多媒体教室", "多媒体教室", "多媒体教室", "机房" };
+    private static final String[] WEEKLY_HOURS = { "1-18:4", "1-18:2", "1-18:6", "1-9:4", "10-18:2", "1-12:6" };
+
+    private SchedulingFixtures() {
+    }
+
+    static ProblemSnapshot randomProblem(long seed, int taskCount, int roomCount) {
+        Random random = new Random(seed);
+        List<Classroom> classrooms = new ArrayList<>();
+        for (int r = 0; r < roomCount; r++) {
+            com.example.back_end.entity.Classroom classroom = new com.example.back_end.entity.Classroom();
+            classroom.setClassroomId("R" + r);
+            classroom.setClassroomName("教室" + r);
+            classroom.setClassroomType(ROOM_TYPES[random.nextInt(ROOM_TYPES.length)]);
+            classroom.setMaximumClassSeatingCapacity(30 + 10 * random.nextInt(10));
+            classroom.setTeachingBuilding("教学楼" + random.nextInt(3));
+            classrooms.add(new Classroom(classroom));
+        }
+        List<Task> tasks = new ArrayList<>();
+        for (int t = 0; t < taskCount; t++) {
+            com.example.back_end.entity.Task task = new com.example.back_end.entity.Task();
+            task.setTeachingClassId("TC" + t);
+            task.setCourseId("C" + t);
+            task.setCourseName("课程" + t % 7);
+            task.setCourseNature(random.nextInt(4) == 0 ? "专业核心课" : "公共基础课");
+            task.setTeacherEmployeeId("T" + random.nextInt(Math.max(1, taskCount / 2)));
+            String composition = "班级" + random.nextInt(Math.max(1, taskCount / 3));
+            if (random.nextInt(4) == 0) {
+                composition += ",班级" + random.nextInt(Math.max(1, taskCount / 3));
+            }
+            task.setTeachingClassComposition(composition);
+            task.setTeachingClassSize(20 + random.nextInt(90));
+            task.setSchedulePriority(1 + random.nextInt(3));
+            task.setCourseWeeklyScheduleHours(WEEKLY_HOURS[random.nextInt(WEEKLY_HOURS.length)]);
+            task.setConsecutiveClassSlots(2);
+            if (random.nextInt(8) == 0) {
+                task.setDesignatedClassroomType("机房");
+            } else if (random.nextInt(10) == 0) {
+                task.setDesignatedClassroom("教室" + random.nextInt(roomCount));
+            }
+            tasks.add(new Task(task));
+        }
+        return new ProblemSnapshot(0, classrooms, tasks);
+    }
+
+    // 随机的任务顺序（稠密任务下标的排列）
+    static int[] randomGenes(int taskCount, Random random) {
+        int[] genes = new int[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            genes[i] = i;
+        }
+        for (int i = taskCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int gene = genes[i];
+            genes[i] = genes[j];
+            genes[j] = gene;
+        }
+        return genes;
+    }
+}
@@ -43,18 +43,42 @@ const Dashboard = () => {
     };
     //处理自动排课
     const generateSchedule = () => {
-        // TODO:待测试
-        fetch('http://localhost:8080/api/assignments/generate', {
-            method: 'GET',
-        }).then((response) => {
-            if (!response.ok) {
-                alert('课表生成失败！：' + response.statusText);
-            }
-            else alert('课表生成成功！');
-            console.log(response);
-            const data = response.json();
-            console.log(data);
-        })
+        fetch('http://localhost:8080/api/assignments/jobs', {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify({}),
+        }).then((response) => response.json())
+            .then((result) => {
+                if (!result.success) {
+                    alert('课表生成失败！：' + result.message);
+                    return;
+                }
+                alert('排课任务已提交，完成后将提示结果');
+                pollScheduleJob(result.data.jobId);
+            })
+            .catch((error) => alert('课表生成失败！：' + error));
+    }
+    // 轮询排课任务状态，直到任务结束
+    const pollScheduleJob = (jobId: string) => {
+        fetch(`http://localhost:8080/api/assignments/jobs/${jobId}`)
+            .then((response) => response.json())
+            .then((result) => {
+                if (!result.success) {
+                    alert('查询排课任务失败！：' + result.message);
+                    return;
+                }
+                const job = result.data;
+                if (job.status === 'QUEUED' || job.status === 'RUNNING') {
+                    setTimeout(() => pollScheduleJob(jobId), 2000);
+                } else if (job.status === 'SUCCEEDED') {
+                    alert('课表生成成功！');
+                } else if (job.status === 'CANCELLED') {
+                    alert('排课任务已取消');
+                } else {
+                    alert('课表生成失败！：' + job.message);
+                }
+            })
+            .catch((error) => alert('查询排课任务失败！：' + error));
     }
     // 处理跳转到排课结果页面
     const navigateToScheduleResult = () => {